@@ -31,6 +31,13 @@ public abstract class FormActivity extends FragmentActivity {
         recreateViews();
     }
 
+    @Override
+    protected void onDestroy() {
+        // let the next instance of the form reuse the views of this one
+        formController.releaseViews();
+        super.onDestroy();
+    }
+
     /**
      * An abstract method that must be overridden by subclasses where the form fields are initialized.
      */
@@ -62,7 +69,7 @@ public abstract class FormActivity extends FragmentActivity {
 
     /**
      * Recreates the views for all the elements that are in the form. This method needs to be called when field are dynamically added or
-     * removed
+     * removed. Only the views of the elements that were added, removed or moved since the last call are updated.
      */
     protected void recreateViews() {
         ViewGroup containerView = (ViewGroup) this.findViewById(R.id.form_elements_container);
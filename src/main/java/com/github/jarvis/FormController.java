@@ -1,19 +1,34 @@
 package com.github.jarvis;
 
 import android.content.Context;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.github.jarvis.controllers.FormSectionController;
 import com.github.jarvis.controllers.LabeledFieldController;
+import com.github.jarvis.validations.CrossFieldValidator;
+import com.github.jarvis.validations.IncrementalFormValidator;
 import com.github.jarvis.validations.PerFieldValidationErrorDisplay;
 import com.github.jarvis.validations.ValidationError;
 import com.github.jarvis.validations.ValidationErrorDisplay;
+import com.github.jarvis.validations.ValidationReport;
+import com.github.jarvis.validations.ValidationResultListener;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -25,7 +40,10 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class FormController {
     private final List<FormSectionController> sectionControllers = new ArrayList<FormSectionController>();
+    private final Map<String,FormElementController> elementsByName = new HashMap<String,FormElementController>();
+    private final IncrementalFormValidator incrementalValidator = new IncrementalFormValidator();
 
+    private final Context context;
     private FormModel model;
     private ValidationErrorDisplay validationErrorDisplay;
     private static final AtomicInteger nextGeneratedViewId = new AtomicInteger(1);
@@ -34,10 +52,17 @@ public class FormController {
      * Constructs a new FormController.
      *
      * @param context       the Activity's context
-     * @param formModel     the backing model that stores the fields values. A map-based implementation is provided by {@link MapFormModel}.
+     * @param formModel     the backing model that stores the fields values. Array-based and map-based implementations are provided by
+     *                      {@link IndexedFormModel} and {@link MapFormModel}.
      */
     public FormController(Context context, FormModel formModel) {
+        this.context = context;
         this.model = formModel;
+        incrementalValidator.setModel(formModel);
+        if (formModel != null) {
+            // cross-field validators are driven by the model's change events, even before the views exist
+            registerFormModelListener();
+        }
         setValidationErrorsDisplayMethod(new PerFieldValidationErrorDisplay(context, this));
     }
 
@@ -56,7 +81,11 @@ public class FormController {
      * @param formModel the model to use
      */
     public void setModel(FormModel formModel) {
+        if (this.model != null) {
+            this.model.removePropertyChangeListener(modelListener);
+        }
         this.model = formModel;
+        incrementalValidator.setModel(formModel);
         registerFormModelListener();
     }
 
@@ -117,6 +146,10 @@ public class FormController {
      */
     public void addSection(FormSectionController section, int position) {
         sectionControllers.add(position, section);
+        ((FormElementController)section).setFormController(this);
+        for (FormElementController element : section.getElements()) {
+            registerElement(element);
+        }
     }
 
     /**
@@ -136,13 +169,71 @@ public class FormController {
      *              element exists
      */
     public FormElementController getElement(String name) {
+        return elementsByName.get(name);
+    }
+
+    /**
+     * Adds the specified element to the form-wide name index. Called whenever an element becomes part of this form,
+     * either through {@link #addSection} or {@link FormSectionController#addElement}.
+     *
+     * @param element   the element to index
+     */
+    void registerElement(FormElementController element) {
+        element.setFormController(this);
+        if (element instanceof LabeledFieldController) {
+            incrementalValidator.track((LabeledFieldController)element);
+        }
+        // if several sections hold an element with the same name, the first one registered wins
+        if (!elementsByName.containsKey(element.getName())) {
+            elementsByName.put(element.getName(), element);
+        }
+    }
+
+    /**
+     * Removes the specified element from the form-wide name index. If another section still holds an element with the
+     * same name, that element takes its place in the index.
+     *
+     * @param element   the element to remove from the index
+     */
+    void unregisterElement(FormElementController element) {
+        element.setFormController(null);
+        if (element instanceof LabeledFieldController) {
+            incrementalValidator.untrack((LabeledFieldController)element);
+        }
+        if (elementsByName.get(element.getName()) != element) {
+            return;
+        }
+
+        elementsByName.remove(element.getName());
         for (FormSectionController section : getSections()) {
-            FormElementController element = section.getElement(name);
-            if (element != null) {
-                return element;
+            FormElementController other = section.getElement(element.getName());
+            if (other != null && other != element) {
+                elementsByName.put(other.getName(), other);
+                break;
             }
         }
-        return null;
+    }
+
+    /**
+     * Discards the cached validation results of the fields with the specified name, and of the cross-field validators
+     * reading it. Validation results are otherwise only discarded when the value of a field is set on the model, so
+     * call this method after changing a value in place, such as an element of a list stored in the model.
+     *
+     * @param fieldName the name of the field whose value changed
+     */
+    public void invalidateValidation(String fieldName) {
+        incrementalValidator.markDirty(fieldName);
+    }
+
+    /**
+     * Discards the cached validation result of the specified element, for example because its validators changed.
+     *
+     * @param element   the element to validate again
+     */
+    void invalidateValidation(FormElementController element) {
+        if (element instanceof LabeledFieldController) {
+            incrementalValidator.markDirty((LabeledFieldController)element);
+        }
     }
 
     /**
@@ -169,32 +260,154 @@ public class FormController {
     }
 
     /**
-     * Returns a list of validation errors of the form's input
+     * Adds a validator checking a rule between several fields of this form. The validator runs again only when one of
+     * the fields it depends on changes. Its errors are reported right after the errors of the field they name.
+     *
+     * @param validator the cross-field validator to add
+     */
+    public void addCrossFieldValidator(CrossFieldValidator validator) {
+        incrementalValidator.addCrossFieldValidator(validator);
+    }
+
+    /**
+     * Removes a validator added with {@link #addCrossFieldValidator(CrossFieldValidator)}.
+     *
+     * @param validator the cross-field validator to remove
+     */
+    public void removeCrossFieldValidator(CrossFieldValidator validator) {
+        incrementalValidator.removeCrossFieldValidator(validator);
+    }
+
+    /**
+     * Returns a list of validation errors of the form's input. Only the fields whose value or validators changed since
+     * they were last validated are validated again; the other fields report their previous errors.
      *
      * @return a list of validation errors of the form's input
      */
     public List<ValidationError> validateInput() {
         List<ValidationError> errors = new ArrayList<ValidationError>();
+        List<ValidationError> crossFieldErrors = incrementalValidator.getCrossFieldErrors();
+        boolean[] placed = new boolean[crossFieldErrors.size()];
 
         for (FormSectionController section : getSections()) {
             for (FormElementController element : section.getElements()) {
                 if (element instanceof LabeledFieldController) {
                     LabeledFieldController field = (LabeledFieldController)element;
-                    errors.addAll(field.validateInput());
+                    errors.addAll(incrementalValidator.getErrors(field));
+                    placeCrossFieldErrors(crossFieldErrors, placed, field.getName(), errors);
                 }
             }
         }
+        placeCrossFieldErrors(crossFieldErrors, placed, null, errors);
 
         return errors;
     }
 
     /**
-     * Indicates if the current user input is valid.
+     * Adds the cross-field errors naming the specified field to {@code errors}, if they were not placed yet.
+     *
+     * @param crossFieldErrors  the errors of the cross-field validators
+     * @param placed            whether each cross-field error was already added
+     * @param fieldName         the name of the field, or null to add all the errors not placed yet
+     * @param errors            the list to add the errors to
+     */
+    static void placeCrossFieldErrors(List<ValidationError> crossFieldErrors, boolean[] placed, String fieldName,
+                                      List<ValidationError> errors) {
+        for (int i = 0; i < placed.length; i++) {
+            ValidationError error = crossFieldErrors.get(i);
+            if (!placed[i] && (fieldName == null || fieldName.equals(error.getFieldName()))) {
+                placed[i] = true;
+                errors.add(error);
+            }
+        }
+    }
+
+    /**
+     * Fills the specified report with the validation errors of the form's input. The report is reset first, and the
+     * slot of each field is its position among the labeled fields of the form. Errors of cross-field validators are
+     * reported in the slot of the field they name, or in the slot {@link ValidationReport#getFieldCount()} if the form
+     * has no such field. Reusing the same report avoids allocating for every validation.
+     *
+     * @param report    the report to fill
+     * @return          the report
+     */
+    public ValidationReport validateInput(ValidationReport report) {
+        report.reset();
+        List<ValidationError> crossFieldErrors = incrementalValidator.getCrossFieldErrors();
+        boolean[] placed = new boolean[crossFieldErrors.size()];
+        int slot = 0;
+        for (FormSectionController section : getSections()) {
+            for (FormElementController element : section.getElements()) {
+                if (element instanceof LabeledFieldController) {
+                    List<ValidationError> errors = incrementalValidator.getErrors((LabeledFieldController)element);
+                    for (int i = 0; i < errors.size(); i++) {
+                        report.add(slot, errors.get(i));
+                    }
+                    for (int i = 0; i < placed.length; i++) {
+                        if (!placed[i] && element.getName().equals(crossFieldErrors.get(i).getFieldName())) {
+                            placed[i] = true;
+                            report.add(slot, crossFieldErrors.get(i));
+                        }
+                    }
+                    slot++;
+                }
+            }
+        }
+        for (int i = 0; i < placed.length; i++) {
+            if (!placed[i]) {
+                report.add(slot, crossFieldErrors.get(i));
+            }
+        }
+        report.setFieldCount(slot);
+
+        return report;
+    }
+
+    /**
+     * Validates the form's input on the specified executor, for example before submitting a large form with expensive
+     * validators. The values of the fields are copied right away; the fields whose errors are not already known are then
+     * validated in parallel chunks, one per available processor. The errors are delivered in form order on the UI
+     * thread. Must be called from the UI thread.
+     *
+     * @param executor  the executor running the validation, typically backed by a pool of threads
+     * @param listener  the listener receiving the validation errors of the form
+     * @return          the task validating the form, which can be cancelled
+     */
+    public FormValidationTask validateInputAsync(Executor executor, ValidationResultListener listener) {
+        List<LabeledFieldController> fields = new ArrayList<LabeledFieldController>();
+        for (FormSectionController section : getSections()) {
+            for (FormElementController element : section.getElements()) {
+                if (element instanceof LabeledFieldController) {
+                    fields.add((LabeledFieldController)element);
+                }
+            }
+        }
+
+        FormValidationTask task = new FormValidationTask(fields.size(), incrementalValidator, listener);
+        // cross-field validators only read the model, which is cheap enough for the UI thread
+        task.setCrossFieldErrors(incrementalValidator.getCrossFieldErrors());
+        for (int i = 0; i < fields.size(); i++) {
+            LabeledFieldController field = fields.get(i);
+            List<ValidationError> errors = incrementalValidator.getCachedErrors(field);
+            if (errors != null) {
+                task.setErrors(i, field.getName(), errors);
+            } else {
+                task.setPending(i, field, incrementalValidator.getGeneration(field), field.getValidatorChain(),
+                        ((FormElementController)field).getModelValueSnapshot(), field.getName(), field.getLabel());
+            }
+        }
+        task.start(executor, Runtime.getRuntime().availableProcessors());
+
+        return task;
+    }
+
+    /**
+     * Indicates if the current user input is valid. Stops validating as soon as an error is found.
      *
      * @return  true if the current user input is valid, otherwise false
      */
     public boolean isValidInput() {
-        return validateInput().isEmpty();
+        return incrementalValidator.isValid();
     }
 
     /**
@@ -204,9 +417,13 @@ public class FormController {
         validationErrorDisplay.showErrors(validateInput());
     }
 
+    /**
+     * Indicates if the current user input is valid. Same as {@link #isValidInput()}.
+     *
+     * @return  true if the current user input is valid, otherwise false
+     */
     public boolean isAllInputValid() {
-        List<ValidationError> errors = validateInput();
-        return errors.size() == 0;
+        return incrementalValidator.isValid();
     }
 
     /**
@@ -226,32 +443,192 @@ public class FormController {
         this.validationErrorDisplay = method;
     }
 
+    /**
+     * Inflates the container layouts of the elements of this form in the background into the shared
+     * {@link FormViewPool}, so that creating their views does not inflate them on the UI thread. Layouts already in the
+     * pool, for example released by a previous instance of the form, are not inflated again. Call this method once the form elements have been added and call
+     * {@link #recreateViews} from {@code onReady}:
+     * <pre>
+     * controller.prewarmViews(new Runnable() {
+     *     public void run() {
+     *         recreateViews();
+     *     }
+     * });
+     * </pre>
+     *
+     * @param onReady   run on the UI thread once all the layouts are inflated
+     */
+    public void prewarmViews(Runnable onReady) {
+        FormViewPool viewPool = FormViewPool.getInstance(context);
+        SparseIntArray layoutCounts = new SparseIntArray();
+        for (FormSectionController section : getSections()) {
+            for (FormElementController element : section.getElements()) {
+                int layoutResId = element.getContainerLayoutId();
+                if (layoutResId != 0 && !element.isViewCreated()) {
+                    layoutCounts.put(layoutResId, layoutCounts.get(layoutResId) + 1);
+                }
+            }
+        }
+        for (int i = 0; i < layoutCounts.size(); i++) {
+            viewPool.prewarm(context, layoutCounts.keyAt(i), layoutCounts.valueAt(i));
+        }
+
+        viewPool.whenReady(context, onReady);
+    }
+
     /**
      * Adds all the form elements that were added to this <code>FormController</code> inside the specified
-     * <code>ViewGroup</code>. This method should be called once the form elements have been added to this controller.
+     * <code>ViewGroup</code>. This method should be called once the form elements have been added to this controller,
+     * and again whenever elements are added or removed. Views that are already attached at the right position are left
+     * untouched; only the views of added, removed or moved elements are inserted, detached or moved.
      *
      * @param containerView the view container to add the form elements within
      */
     public void recreateViews(ViewGroup containerView) {
-        containerView.removeAllViews();
+        List<View> views = new ArrayList<View>(getSections().size() + getNumberOfElements());
+
+        // elements write their prefilled values while creating their views; deliver those changes once at the end
+        getModel().beginBatch();
+        try {
+            for (FormSectionController section : getSections()) {
+                ((FormElementController)section).setModel(getModel());
+                views.add(section.getView());
+
+                for (FormElementController element : section.getElements()) {
+                    element.setModel(getModel());
+                    views.add(element.getView());
+                }
+            }
+        } finally {
+            getModel().commit();
+        }
 
+        reconcileViews(containerView, views);
+
+        // now that the view is setup, register a listener of the model to update the view on changes
+        registerFormModelListener();
+    }
+
+    /**
+     * Makes the children of {@code containerView} match {@code views}, in order, with as few view operations as
+     * possible.
+     */
+    private static void reconcileViews(ViewGroup containerView, List<View> views) {
+        Set<View> wanted = Collections.newSetFromMap(new IdentityHashMap<View,Boolean>(views.size()));
+        wanted.addAll(views);
+
+        int index = 0;
+        for (View view : views) {
+            // detach the views of elements that are no longer part of the form
+            while (index < containerView.getChildCount() && !wanted.contains(containerView.getChildAt(index))) {
+                containerView.removeViewAt(index);
+            }
+
+            if (index < containerView.getChildCount()) {
+                View current = containerView.getChildAt(index);
+                if (current == view) {
+                    index++;
+                    continue;
+                }
+                if (index + 1 < containerView.getChildCount() && containerView.getChildAt(index + 1) == view) {
+                    // the current view moved further down; it is attached again once its position is reached
+                    containerView.removeViewAt(index);
+                    index++;
+                    continue;
+                }
+            }
+
+            // the view is either attached elsewhere or not attached at all
+            ViewParent parent = view.getParent();
+            if (parent instanceof ViewGroup) {
+                ((ViewGroup)parent).removeView(view);
+            }
+            containerView.addView(view, index);
+            index++;
+        }
+
+        if (index < containerView.getChildCount()) {
+            containerView.removeViews(index, containerView.getChildCount() - index);
+        }
+    }
+
+    /**
+     * Gives the views of all the elements of this form back to the shared {@link FormViewPool} so that other forms, or
+     * this form when it is opened again, can reuse them. Call this method when the form is torn down, for example when
+     * its Activity is destroyed. The views are recreated the next time {@link #recreateViews} is called.
+     */
+    public void releaseViews() {
+        // the views of this form are no longer worth inflating ahead of time
+        FormViewPool.getInstance(context).cancel(context);
+        // the views recreated next show no error, whatever the display showed on the released ones
+        if (validationErrorDisplay instanceof PerFieldValidationErrorDisplay) {
+            ((PerFieldValidationErrorDisplay)validationErrorDisplay).onViewsReleased();
+        }
         for (FormSectionController section : getSections()) {
-            ((FormElementController)section).setModel(getModel());
-            containerView.addView(section.getView());
+            ((FormElementController)section).releaseView();
+            for (FormElementController element : section.getElements()) {
+                element.releaseView();
+            }
+        }
+    }
 
+    /**
+     * Called when the view of an element is released on its own, for example because its row was recycled.
+     */
+    void onElementViewReleased(FormElementController element) {
+        // the next view of the element shows no error, whatever the display showed on the released one
+        if (validationErrorDisplay instanceof PerFieldValidationErrorDisplay) {
+            ((PerFieldValidationErrorDisplay)validationErrorDisplay).onViewReleased(element.getName());
+        }
+    }
+
+    /**
+     * Displays the form elements that were added to this <code>FormController</code> in the specified
+     * <code>RecyclerView</code>. Unlike {@link #recreateViews(ViewGroup)}, the view of an element is only created once
+     * its row becomes visible, which keeps opening large forms fast. Because of that, values that controllers prefill
+     * while creating their views are only written to the model once their row is first shown; set such values on the
+     * model directly (for example using {@link FormModel#putAll}) if the whole form must be valid before it is scrolled.
+     * The view of an element is released again when its row is recycled, and created from the model the next time the
+     * row is shown, so only the visible rows keep a view however large the form is.
+     * <p/>
+     * This method should be called once the form elements have been added to this controller, and again whenever
+     * elements are added or removed. If the <code>RecyclerView</code> has no layout manager, a vertical
+     * <code>LinearLayoutManager</code> is used.
+     *
+     * @param recyclerView  the <code>RecyclerView</code> to display the form elements in
+     */
+    public void recreateViews(RecyclerView recyclerView) {
+        for (FormSectionController section : getSections()) {
+            ((FormElementController)section).setModel(getModel());
             for (FormElementController element : section.getElements()) {
                 element.setModel(getModel());
-                containerView.addView(element.getView());
             }
         }
 
-        // now that the view is setup, register a listener of the model to update the view on changes
+        if (recyclerView.getLayoutManager() == null) {
+            recyclerView.setLayoutManager(new LinearLayoutManager(recyclerView.getContext()));
+        }
+        FormRecyclerAdapter adapter;
+        if (recyclerView.getAdapter() instanceof FormRecyclerAdapter) {
+            adapter = (FormRecyclerAdapter)recyclerView.getAdapter();
+        } else {
+            adapter = new FormRecyclerAdapter();
+            recyclerView.setAdapter(adapter);
+        }
+        adapter.setSections(getSections());
+
         registerFormModelListener();
     }
 
     private PropertyChangeListener modelListener = new PropertyChangeListener() {
         @Override public void propertyChange(PropertyChangeEvent event) {
-            getElement(event.getPropertyName()).refresh();
+            incrementalValidator.markDirty(event.getPropertyName());
+
+            FormElementController element = getElement(event.getPropertyName());
+            // elements whose view was not created yet will read the model when it is
+            if (element != null && element.isViewCreated()) {
+                element.refresh();
+            }
         }
     };
 }
@@ -2,6 +2,15 @@ package com.github.jarvis;
 
 import android.content.Context;
 import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * The base class for all form elements, such as text fields, buttons, sections, etc. Each {@code FormElementController}
@@ -11,7 +20,10 @@ public abstract class FormElementController {
     private final Context context;
     private final String name;
     private FormModel model;
+    private int slot = FormModel.NO_SLOT;
+    private FormController formController;
     private View view;
+    private boolean viewCreatedBefore;
 
     /**
      * Constructs a new instance with the specified name.
@@ -42,8 +54,58 @@ public abstract class FormElementController {
         return name;
     }
 
+    void setFormController(FormController formController) {
+        this.formController = formController;
+    }
+
+    /**
+     * Notifies the form this element belongs to, if any, that {@code element} was added below this element so it can
+     * be looked up by name.
+     *
+     * @param element   the element that was added
+     */
+    protected void onChildElementAdded(FormElementController element) {
+        if (formController != null) {
+            formController.registerElement(element);
+        }
+    }
+
+    /**
+     * Notifies the form this element belongs to, if any, that {@code element} was removed from below this element.
+     *
+     * @param element   the element that was removed
+     */
+    protected void onChildElementRemoved(FormElementController element) {
+        if (formController != null) {
+            formController.unregisterElement(element);
+        }
+    }
+
+    /**
+     * Notifies the form this element belongs to, if any, that the validation rules of this element changed, so its
+     * previous validation result is not reused.
+     */
+    protected void onValidatorsChanged() {
+        if (formController != null) {
+            formController.invalidateValidation(this);
+        }
+    }
+
+    /**
+     * Notifies the form this element belongs to, if any, that the value of this element was changed in place rather
+     * than set on the model, so its previous validation result is not reused.
+     *
+     * @see FormController#invalidateValidation(String)
+     */
+    protected void onModelValueChangedInPlace() {
+        if (formController != null) {
+            formController.invalidateValidation(name);
+        }
+    }
+
     void setModel(FormModel model) {
         this.model = model;
+        this.slot = model != null ? model.resolveSlot(name) : FormModel.NO_SLOT;
     }
 
     /**
@@ -55,6 +117,49 @@ public abstract class FormElementController {
         return model;
     }
 
+    /**
+     * Returns the value of this element from the associated model, looked up by the slot the element was bound to.
+     *
+     * @return the current value of this element
+     */
+    protected Object getModelValue() {
+        return model.getValue(slot);
+    }
+
+    /**
+     * Returns a copy of the value of this element that can be read on another thread while this element keeps
+     * changing its value on the UI thread, see {@link FormController#validateInputAsync}. Collections are copied;
+     * subclasses whose values hold mutable objects must copy those too.
+     *
+     * @return a snapshot of the current value of this element
+     */
+    protected Object getModelValueSnapshot() {
+        Object value = getModelValue();
+        if (value instanceof List) {
+            return new ArrayList<>((List<?>)value);
+        }
+        if (value instanceof Set) {
+            return new LinkedHashSet<>((Set<?>)value);
+        }
+        if (value instanceof Map) {
+            return new LinkedHashMap<>((Map<?,?>)value);
+        }
+        if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>)value);
+        }
+        return value;
+    }
+
+    /**
+     * Sets the value of this element on the associated model.
+     *
+     * @param newValue  the value to set
+     * @see #getModelValue()
+     */
+    protected void setModelValue(Object newValue) {
+        model.setValue(slot, newValue);
+    }
+
     /**
      * Returns the associated view for this element.
      *
@@ -63,6 +168,7 @@ public abstract class FormElementController {
     public View getView() {
         if (view == null) {
             view = createView();
+            viewCreatedBefore = true;
         }
         return view;
     }
@@ -76,6 +182,72 @@ public abstract class FormElementController {
         return view != null;
     }
 
+    /**
+     * Indicates if a view of this element was created before the one being created, and released since, for example
+     * because its row was scrolled out of a <code>RecyclerView</code>. Initial values must then not be written to the
+     * model again, since it holds what the user entered: the new view should only reflect the model.
+     *
+     * @return true if this element already had a view, or false if its first view is being created
+     */
+    protected boolean wasViewCreatedBefore() {
+        return viewCreatedBefore;
+    }
+
+    /**
+     * Returns the layout this element inflates as the container of its view. Forms use it to inflate containers ahead
+     * of time, see {@link FormController#prewarmViews(Runnable)}.
+     *
+     * @return the layout resource of the container, or 0 if this element does not inflate one
+     */
+    protected int getContainerLayoutId() {
+        return 0;
+    }
+
+    /**
+     * Returns a view of the specified layout, taken from the shared {@link FormViewPool} if one is available, or
+     * inflated on the calling thread otherwise.
+     *
+     * @param layoutResId   the layout resource to inflate
+     * @return              a view of the specified layout
+     */
+    protected View inflateLayout(int layoutResId) {
+        return FormViewPool.getInstance(context).inflate(context, layoutResId);
+    }
+
+    /**
+     * Called before the container view of this element is given back to the {@link FormViewPool}. Subclasses that
+     * inflate their container with {@link #inflateLayout(int)} should remove what they added to it and restore the state
+     * it was inflated with, so that another element can use it.
+     *
+     * @param view  the container view being released
+     * @return      true if the view can be reused by other elements, false to drop it
+     */
+    protected boolean onReleaseView(View view) {
+        return false;
+    }
+
+    /**
+     * Detaches the view of this element and gives its container back to the view pool. A new view is created, from the
+     * values in the model, the next time {@link #getView()} is called.
+     */
+    void releaseView() {
+        if (view == null) {
+            return;
+        }
+
+        View releasedView = view;
+        view = null;
+        if (formController != null) {
+            formController.onElementViewReleased(this);
+        }
+        int layoutResId = getContainerLayoutId();
+        if (layoutResId != 0 && onReleaseView(releasedView)) {
+            FormViewPool.getInstance(context).release(layoutResId, releasedView);
+        } else if (releasedView.getParent() instanceof ViewGroup) {
+            ((ViewGroup)releasedView.getParent()).removeView(releasedView);
+        }
+    }
+
     /**
      * Constructs the view for this element.
      *
@@ -43,6 +43,13 @@ public abstract class FormFragment extends Fragment {
         recreateViews();
     }
 
+    @Override
+    public void onDestroyView() {
+        // the container is going away; give the element views back so they can be reused
+        formController.releaseViews();
+        super.onDestroyView();
+    }
+
     /**
      * An abstract method that must be overridden by subclasses where the form fields are initialized.
      */
@@ -74,7 +81,7 @@ public abstract class FormFragment extends Fragment {
 
     /**
      * Recreates the views for all the elements that are in the form. This method needs to be called when field are dynamically added or
-     * removed
+     * removed. Only the views of the elements that were added, removed or moved since the last call are updated.
      */
     protected void recreateViews() {
         ViewGroup containerView = (ViewGroup) getActivity().findViewById(R.id.form_elements_container);
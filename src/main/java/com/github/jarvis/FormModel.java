@@ -1,7 +1,11 @@
 package com.github.jarvis;
 
 import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -9,7 +13,18 @@ import java.util.Objects;
  * for form elements to retrieve their values to display to the user and persist changes to the model upon changes.
  */
 public abstract class FormModel {
-    private final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(this);
+    /**
+     * The slot of a form element that is not bound to a model yet. {@link #resolveSlot(String)} never returns it, since
+     * every model supports slots.
+     */
+    public static final int NO_SLOT = -1;
+
+    private final PropertyChangeDispatcher propertyChangeDispatcher = new PropertyChangeDispatcher(this);
+    private final Map<String,Object[]> pendingChanges = new LinkedHashMap<>();
+    private int batchDepth;
+    // the slots of the models that do not store their values by slot, created on first use
+    private Map<String,Integer> fallbackSlots;
+    private List<String> fallbackSlotNames;
 
     /**
      * This method is called when a form element changes its value through user input or external changes. Subclasses
@@ -29,6 +44,65 @@ public abstract class FormModel {
      */
     protected abstract Object getBackingValue(String name);
 
+    /**
+     * Resolves the specified field name to an integer slot that can be used with {@link #getValue(int)} and
+     * {@link #setValue(int, Object)}. By default, slots are numbered in the order names are first resolved and map back
+     * to the name-based methods, so every model supports slots. Models that store their values by slot should override
+     * this method along with {@link #getSlotName(int)}, {@link #getBackingValue(int)} and
+     * {@link #setBackingValue(int, Object)}.
+     *
+     * @param name  the field name to resolve
+     * @return      the slot of the field, never {@link #NO_SLOT}
+     */
+    public int resolveSlot(String name) {
+        if (fallbackSlots == null) {
+            fallbackSlots = new HashMap<>();
+            fallbackSlotNames = new ArrayList<>();
+        }
+        Integer slot = fallbackSlots.get(name);
+        if (slot == null) {
+            slot = fallbackSlotNames.size();
+            fallbackSlotNames.add(name);
+            fallbackSlots.put(name, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the field name that the specified slot was resolved from.
+     *
+     * @param slot  a slot returned by {@link #resolveSlot(String)}
+     * @return      the field name of the slot
+     */
+    protected String getSlotName(int slot) {
+        if (fallbackSlotNames == null || slot < 0 || slot >= fallbackSlotNames.size()) {
+            throw new IllegalArgumentException("Unknown slot: " + slot);
+        }
+        return fallbackSlotNames.get(slot);
+    }
+
+    /**
+     * Slot-based counterpart of {@link #getBackingValue(String)}. By default, looks the value up by the name of the
+     * slot.
+     *
+     * @param slot  a slot returned by {@link #resolveSlot(String)}
+     * @return      the current value of the field
+     */
+    protected Object getBackingValue(int slot) {
+        return getBackingValue(getSlotName(slot));
+    }
+
+    /**
+     * Slot-based counterpart of {@link #setBackingValue(String, Object)}. By default, sets the value by the name of the
+     * slot.
+     *
+     * @param slot      a slot returned by {@link #resolveSlot(String)}
+     * @param newValue  the value to set
+     */
+    protected void setBackingValue(int slot, Object newValue) {
+        setBackingValue(getSlotName(slot), newValue);
+    }
+
     /**
      * Returns the value for the specified field name.
      *
@@ -51,7 +125,107 @@ public abstract class FormModel {
         Object curValue = getBackingValue(name);
         if (!objectsEqual(curValue, newValue)) {
             setBackingValue(name, newValue);
-            propertyChangeSupport.firePropertyChange(name, curValue, newValue);
+            fireValueChanged(name, curValue, newValue);
+        }
+    }
+
+    /**
+     * Returns the value for the specified slot.
+     *
+     * @param slot  a slot returned by {@link #resolveSlot(String)}
+     * @return      the value currently set for the field of the slot
+     */
+    public final Object getValue(int slot) {
+        return getBackingValue(slot);
+    }
+
+    /**
+     * Sets a value for the specified slot. A property change notification is fired to registered listeners if the
+     * field's value changed.
+     *
+     * @param slot      a slot returned by {@link #resolveSlot(String)}
+     * @param newValue  the value to set
+     */
+    public final void setValue(int slot, Object newValue) {
+        Object curValue = getBackingValue(slot);
+        if (!objectsEqual(curValue, newValue)) {
+            setBackingValue(slot, newValue);
+            fireValueChanged(getSlotName(slot), curValue, newValue);
+        }
+    }
+
+    /**
+     * Sets the values of all the fields in the specified map. Listeners are notified once per field whose value
+     * changed, after all the values have been set.
+     *
+     * @param values    a map of field names to the values to set
+     */
+    public final void putAll(Map<String,?> values) {
+        beginBatch();
+        try {
+            for (Map.Entry<String,?> entry : values.entrySet()) {
+                setValue(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            commit();
+        }
+    }
+
+    /**
+     * Starts a batch of changes. Values set until the matching {@link #commit()} are written to the model right away,
+     * but change notifications are held back and merged so each field fires at most once. Batches can be nested; only
+     * the outermost {@code commit()} delivers the notifications, to the listeners registered at that time, including
+     * those added during the batch.
+     */
+    public final void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Ends a batch started by {@link #beginBatch()}. When the outermost batch ends, a single change notification is
+     * fired for every field whose value differs from the one it had when the batch started.
+     */
+    public final void commit() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("commit() called without a matching beginBatch()");
+        }
+        if (--batchDepth > 0 || pendingChanges.isEmpty()) {
+            return;
+        }
+
+        // copy the changes first so listeners can safely set values while being notified
+        List<Map.Entry<String,Object[]>> changes = new ArrayList<>(pendingChanges.entrySet());
+        pendingChanges.clear();
+        for (Map.Entry<String,Object[]> change : changes) {
+            Object oldValue = change.getValue()[0];
+            Object newValue = change.getValue()[1];
+            if (!objectsEqual(oldValue, newValue) && propertyChangeDispatcher.hasListeners(change.getKey())) {
+                propertyChangeDispatcher.firePropertyChange(change.getKey(), oldValue, newValue);
+            }
+        }
+    }
+
+    /**
+     * Indicates whether a batch started by {@link #beginBatch()} is in progress.
+     *
+     * @return true if change notifications are currently held back, otherwise false
+     */
+    public final boolean isInBatch() {
+        return batchDepth > 0;
+    }
+
+    private void fireValueChanged(String name, Object oldValue, Object newValue) {
+        if (batchDepth == 0) {
+            propertyChangeDispatcher.firePropertyChange(name, oldValue, newValue);
+            return;
+        }
+
+        // recorded even without listeners, one may be added before the batch is committed
+        Object[] change = pendingChanges.get(name);
+        if (change == null) {
+            pendingChanges.put(name, new Object[] { oldValue, newValue });
+        } else {
+            change[1] = newValue;
         }
     }
 
@@ -61,38 +235,39 @@ public abstract class FormModel {
     }
 
     /**
-     * Subscribes {@code listener} to change notifications for all fields.
+     * Subscribes {@code listener} to change notifications for all fields. Listeners for all fields are notified before
+     * the listeners of the changed field, in the order they were added.
      *
-     * @see PropertyChangeSupport#addPropertyChangeListener(java.beans.PropertyChangeListener)
+     * @see java.beans.PropertyChangeSupport#addPropertyChangeListener(java.beans.PropertyChangeListener)
      */
     public void addPropertyChangeListener(PropertyChangeListener listener) {
-        propertyChangeSupport.addPropertyChangeListener(listener);
+        propertyChangeDispatcher.addPropertyChangeListener(listener);
     }
 
     /**
      * Subscribes {@code listener} to change notifications for the specified field name.
      *
-     * @see PropertyChangeSupport#addPropertyChangeListener(String, java.beans.PropertyChangeListener)
+     * @see java.beans.PropertyChangeSupport#addPropertyChangeListener(String, java.beans.PropertyChangeListener)
      */
     public void addPropertyChangeListener(String fieldName, PropertyChangeListener listener) {
-        propertyChangeSupport.addPropertyChangeListener(fieldName, listener);
+        propertyChangeDispatcher.addPropertyChangeListener(fieldName, listener);
     }
 
     /**
      * Unsubscribes {@code listener} from change notifications for all fields.
      *
-     * @see PropertyChangeSupport#removePropertyChangeListener(java.beans.PropertyChangeListener)
+     * @see java.beans.PropertyChangeSupport#removePropertyChangeListener(java.beans.PropertyChangeListener)
      */
     public void removePropertyChangeListener(PropertyChangeListener listener) {
-        propertyChangeSupport.removePropertyChangeListener(listener);
+        propertyChangeDispatcher.removePropertyChangeListener(listener);
     }
 
     /**
      * Unsubscribes {@code listener} from change notifications for the specified field name.
      *
-     * @see PropertyChangeSupport#removePropertyChangeListener(String, java.beans.PropertyChangeListener)
+     * @see java.beans.PropertyChangeSupport#removePropertyChangeListener(String, java.beans.PropertyChangeListener)
      */
     public void removePropertyChangeListener(String fieldName, PropertyChangeListener listener) {
-        propertyChangeSupport.removePropertyChangeListener(fieldName, listener);
+        propertyChangeDispatcher.removePropertyChangeListener(fieldName, listener);
     }
 }
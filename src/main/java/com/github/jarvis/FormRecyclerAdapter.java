@@ -0,0 +1,117 @@
+package com.github.jarvis;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.github.jarvis.controllers.FormSectionController;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adapter used by {@link FormController#recreateViews(RecyclerView)} to render a form in a <code>RecyclerView</code>.
+ * Each row is a section or an element of the form, with one view type per controller class, so that a holder is only
+ * reused by elements of the same kind. The view of an element is created, from the model, when its row is bound, and
+ * released when the holder is recycled: its container goes back to the {@link FormViewPool}, where the next element of
+ * that kind takes it from, so only the rows on screen, and those the <code>RecyclerView</code> caches, keep a view.
+ */
+final class FormRecyclerAdapter extends RecyclerView.Adapter<FormRecyclerAdapter.ElementViewHolder> {
+    private final List<FormElementController> rows = new ArrayList<>();
+    private final Map<Class<?>,Integer> viewTypes = new HashMap<>();
+
+    /**
+     * Replaces the rows of this adapter by the sections of a form, each followed by its elements.
+     *
+     * @param sections  the sections of the form
+     */
+    void setSections(List<FormSectionController> sections) {
+        rows.clear();
+        for (FormSectionController section : sections) {
+            rows.add(section);
+            rows.addAll(section.getElements());
+        }
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        Class<?> controllerClass = rows.get(position).getClass();
+        Integer viewType = viewTypes.get(controllerClass);
+        if (viewType == null) {
+            viewType = viewTypes.size();
+            viewTypes.put(controllerClass, viewType);
+        }
+        return viewType;
+    }
+
+    @Override
+    public ElementViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        FrameLayout container = new FrameLayout(parent.getContext());
+        container.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+        return new ElementViewHolder(container);
+    }
+
+    @Override
+    public void onBindViewHolder(ElementViewHolder holder, int position) {
+        holder.bind(rows.get(position));
+    }
+
+    @Override
+    public void onViewRecycled(ElementViewHolder holder) {
+        holder.unbind();
+    }
+
+    @Override
+    public int getItemCount() {
+        return rows.size();
+    }
+
+    static final class ElementViewHolder extends RecyclerView.ViewHolder {
+        private final FrameLayout container;
+        private FormElementController element;
+
+        ElementViewHolder(FrameLayout container) {
+            super(container);
+            this.container = container;
+        }
+
+        void bind(FormElementController element) {
+            if (this.element != null && this.element != element) {
+                unbind();
+            }
+            this.element = element;
+
+            boolean wasCreated = element.isViewCreated();
+            View view = element.getView();
+            // even when this holder showed the element last, another holder may have taken its view since
+            if (view.getParent() != container) {
+                container.removeAllViews();
+                if (view.getParent() instanceof ViewGroup) {
+                    // the view is still held by a holder that has not been recycled yet
+                    ((ViewGroup)view.getParent()).removeView(view);
+                }
+                container.addView(view);
+            }
+
+            // a view created just now already reflects the model, but one kept meanwhile may not
+            if (wasCreated) {
+                element.refresh();
+            }
+        }
+
+        void unbind() {
+            // the values are in the model, a new view is created from them the next time the row is bound
+            if (element != null && element.isViewCreated() && element.getView().getParent() == container) {
+                element.releaseView();
+            }
+            element = null;
+            container.removeAllViews();
+        }
+    }
+}
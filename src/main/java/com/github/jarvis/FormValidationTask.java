@@ -0,0 +1,185 @@
+package com.github.jarvis;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.github.jarvis.controllers.LabeledFieldController;
+import com.github.jarvis.validations.IncrementalFormValidator;
+import com.github.jarvis.validations.ValidationError;
+import com.github.jarvis.validations.ValidationResultListener;
+import com.github.jarvis.validations.ValidatorChain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A validation of a whole form running on a pool of threads, see
+ * {@link FormController#validateInputAsync(Executor, ValidationResultListener)}. The values and validators of the fields
+ * are captured on the UI thread when the task is created, the fields are then validated in parallel chunks, and the
+ * errors are merged back in form order, with the errors of cross-field validators after the field they name, and
+ * delivered on the UI thread. The errors of the fields validated are also stored in the
+ * {@link IncrementalFormValidator} of the form, unless their value changed in the meantime, so they are not validated
+ * again by the next validation.
+ */
+public final class FormValidationTask {
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ValidationResultListener listener;
+    private final IncrementalFormValidator incrementalValidator;
+
+    // one entry per labeled field, in form order
+    private final List<ValidationError>[] errors;
+    private final ValidatorChain[] chains;
+    private final Object[] values;
+    private final String[] names;
+    private final String[] labels;
+    private final LabeledFieldController[] fields;
+    private final int[] generations;
+    // the indices of the fields to validate, the others already have their errors
+    private final int[] pending;
+    private int pendingSize;
+    private List<ValidationError> crossFieldErrors = Collections.emptyList();
+
+    private final AtomicInteger remainingChunks = new AtomicInteger();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private volatile boolean cancelled;
+    private boolean done;
+
+    @SuppressWarnings("unchecked")
+    FormValidationTask(int fieldCount, IncrementalFormValidator incrementalValidator,
+            ValidationResultListener listener) {
+        this.listener = listener;
+        this.incrementalValidator = incrementalValidator;
+        errors = new List[fieldCount];
+        chains = new ValidatorChain[fieldCount];
+        values = new Object[fieldCount];
+        names = new String[fieldCount];
+        labels = new String[fieldCount];
+        fields = new LabeledFieldController[fieldCount];
+        generations = new int[fieldCount];
+        pending = new int[fieldCount];
+    }
+
+    /**
+     * Records the known errors of the field at the specified position.
+     */
+    void setErrors(int index, String name, List<ValidationError> fieldErrors) {
+        names[index] = name;
+        errors[index] = fieldErrors;
+    }
+
+    /**
+     * Records the errors of the cross-field validators of the form, which are merged after the fields they name.
+     */
+    void setCrossFieldErrors(List<ValidationError> crossFieldErrors) {
+        this.crossFieldErrors = crossFieldErrors;
+    }
+
+    /**
+     * Records the field at the specified position as needing validation with the specified snapshot of its state,
+     * taken at the specified generation of the field in the incremental validator.
+     */
+    void setPending(int index, LabeledFieldController field, int generation, ValidatorChain chain, Object value,
+            String name, String label) {
+        fields[index] = field;
+        generations[index] = generation;
+        chains[index] = chain;
+        values[index] = value;
+        names[index] = name;
+        labels[index] = label;
+        pending[pendingSize++] = index;
+    }
+
+    /**
+     * Validates the pending fields on the specified executor, in at most {@code parallelism} chunks.
+     */
+    void start(Executor executor, int parallelism) {
+        int chunks = Math.max(1, Math.min(parallelism, pendingSize));
+        remainingChunks.set(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int from = (int)((long)pendingSize * chunk / chunks);
+            final int to = (int)((long)pendingSize * (chunk + 1) / chunks);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    validateChunk(from, to);
+                }
+            });
+        }
+    }
+
+    /**
+     * Cancels the validation. Fields not validated yet are skipped and the listener is not called. Must be called from
+     * the UI thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Indicates whether the result was delivered to the listener.
+     *
+     * @return  true if the listener was called, otherwise false
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    private void validateChunk(int from, int to) {
+        try {
+            for (int i = from; i < to && !cancelled; i++) {
+                int index = pending[i];
+                List<ValidationError> fieldErrors = new ArrayList<>();
+                chains[index].validate(values[index], names[index], labels[index], fieldErrors);
+                errors[index] = fieldErrors;
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+
+        if (remainingChunks.decrementAndGet() == 0) {
+            // posting to the handler also publishes the errors written by the other chunks to the UI thread
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    deliver();
+                }
+            });
+        }
+    }
+
+    private void deliver() {
+        // whatever was validated is still worth keeping, even if the task was cancelled or failed
+        for (int i = 0; i < pendingSize; i++) {
+            int index = pending[i];
+            if (errors[index] != null) {
+                incrementalValidator.putErrors(fields[index], generations[index], errors[index]);
+            }
+        }
+
+        if (cancelled) {
+            return;
+        }
+        if (failure.get() != null) {
+            // fail the same way a validation on the UI thread would
+            throw failure.get();
+        }
+
+        List<ValidationError> result = new ArrayList<>();
+        boolean[] placed = new boolean[crossFieldErrors.size()];
+        for (int i = 0; i < errors.length; i++) {
+            result.addAll(errors[i]);
+            FormController.placeCrossFieldErrors(crossFieldErrors, placed, names[i], result);
+        }
+        FormController.placeCrossFieldErrors(crossFieldErrors, placed, null, result);
+        done = true;
+        listener.onValidationResult(result);
+    }
+}
@@ -0,0 +1,459 @@
+package com.github.jarvis;
+
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A process-wide pool of layouts, keyed by layout resource, shared by the elements of all forms. Elements take their
+ * container layout from the pool when their view is created and return it when the form is torn down (see
+ * {@link FormController#releaseViews()}), so reopening a form does not inflate those layouts again. The pool can also
+ * be filled ahead of time on a background thread, see {@link FormController#prewarmViews(Runnable)}. Inflations, and
+ * the callbacks waiting for them, only hold their context weakly, and are dropped by {@link #cancel(Context)} when the
+ * form is torn down or skipped once their Activity is finishing.
+ * <p/>
+ * Like {@code AsyncLayoutInflater}, the background thread inflates without the factories of the Activity, which are
+ * not thread-safe, so it creates the framework widgets themselves rather than, for example, their AppCompat
+ * counterparts. Layouts that cannot be inflated that way, for example because a view needs a thread with a Looper,
+ * are inflated on the UI thread instead, with the factories of the Activity.
+ * <p/>
+ * Pooled views are inflated with a {@link MutableContextWrapper}, which is pointed at the context of the element that
+ * uses the view, and back at the application context while the view sits in the pool, so the pool never holds on to an
+ * Activity. Views keep the styling and the resources of the context they were inflated with, so a view is only reused
+ * by a context with the same configuration, and dropped otherwise, for example after a rotation. The pool halves
+ * itself when the system asks the application to trim its memory, and empties itself when memory is critically low.
+ * All methods must be called from the UI thread.
+ */
+public class FormViewPool implements ComponentCallbacks2 {
+    /**
+     * The maximum number of views of a single layout kept by default.
+     */
+    public static final int DEFAULT_MAX_POOLED_VIEWS = 200;
+
+    // inflations are handed to the background thread a few at a time, so the rest can still be cancelled
+    private static final int MAX_PENDING_INFLATIONS = 8;
+
+    private static FormViewPool instance;
+
+    private final Context applicationContext;
+    private final SparseArray<List<View>> pooledViews = new SparseArray<>();
+    private final SparseIntArray maxPooledViews = new SparseIntArray();
+    private final SparseArray<QueuedInflations> queuedInflations = new SparseArray<>();
+    private final List<ReadyCallback> readyCallbacks = new ArrayList<>();
+    private final List<Inflation> runningInflations = new ArrayList<>();
+    // the configuration each view created by the pool was inflated with
+    private final Map<View,Configuration> inflatedConfigurations = new WeakHashMap<>();
+    private final ExecutorService inflateExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private int pendingInflations;
+
+    /**
+     * The views of a layout still to inflate, with the context of the latest form that requested them.
+     */
+    private static final class QueuedInflations {
+        int count;
+        WeakReference<Context> context;
+    }
+
+    /**
+     * A view being inflated in the background.
+     */
+    private final class Inflation implements Runnable {
+        final int layoutResId;
+        final WeakReference<Context> context;
+        final Configuration configuration;
+        // set on the UI thread by cancel(), read by the inflation thread
+        volatile boolean cancelled;
+
+        Inflation(int layoutResId, Context context) {
+            this.layoutResId = layoutResId;
+            this.context = new WeakReference<>(context);
+            configuration = new Configuration(context.getResources().getConfiguration());
+        }
+
+        @Override
+        public void run() {
+            View view = null;
+            boolean failed = false;
+            Context base = context.get();
+            if (!cancelled && isAlive(base)) {
+                MutableContextWrapper wrapper = new MutableContextWrapper(base);
+                try {
+                    view = new BackgroundInflater(wrapper).inflate(layoutResId, null);
+                } catch (RuntimeException e) {
+                    // the layout needs a factory of the Activity, or a thread with a Looper
+                    failed = true;
+                }
+                wrapper.setBaseContext(applicationContext);
+            }
+
+            final View inflated = view;
+            final boolean inflateOnUiThread = failed;
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    onInflateFinished(Inflation.this, inflated, inflateOnUiThread);
+                }
+            });
+        }
+    }
+
+    /**
+     * Inflates without any factory, like the inflater of {@code AsyncLayoutInflater}, so that inflating in the
+     * background never runs the factories of the Activity.
+     */
+    private static final class BackgroundInflater extends LayoutInflater {
+        private static final String[] CLASS_PREFIXES = { "android.widget.", "android.webkit.", "android.app." };
+
+        BackgroundInflater(Context context) {
+            super(context);
+        }
+
+        @Override
+        public LayoutInflater cloneInContext(Context newContext) {
+            return new BackgroundInflater(newContext);
+        }
+
+        @Override
+        protected View onCreateView(String name, AttributeSet attrs) throws ClassNotFoundException {
+            for (String prefix : CLASS_PREFIXES) {
+                try {
+                    View view = createView(name, prefix, attrs);
+                    if (view != null) {
+                        return view;
+                    }
+                } catch (ClassNotFoundException e) {
+                    // try the next package
+                }
+            }
+            return super.onCreateView(name, attrs);
+        }
+    }
+
+    private static final class ReadyCallback {
+        final WeakReference<Context> context;
+        final Runnable callback;
+
+        ReadyCallback(Context context, Runnable callback) {
+            this.context = new WeakReference<>(context);
+            this.callback = callback;
+        }
+    }
+
+    /**
+     * Returns the pool shared by all forms of the application.
+     *
+     * @param context   any context of the application
+     * @return          the shared pool
+     */
+    public static FormViewPool getInstance(Context context) {
+        if (instance == null) {
+            instance = new FormViewPool(context.getApplicationContext());
+            instance.applicationContext.registerComponentCallbacks(instance);
+        }
+        return instance;
+    }
+
+    private FormViewPool(Context applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Sets how many views of the specified layout the pool keeps at most. Views released beyond that limit are dropped.
+     *
+     * @param layoutResId   the layout resource
+     * @param max           the maximum number of pooled views of that layout
+     */
+    public void setMaxPooledViews(int layoutResId, int max) {
+        maxPooledViews.put(layoutResId, max);
+        trim(layoutResId, max);
+    }
+
+    /**
+     * Returns how many views of the specified layout the pool keeps at most.
+     *
+     * @param layoutResId   the layout resource
+     * @return              the maximum number of pooled views of that layout
+     */
+    public int getMaxPooledViews(int layoutResId) {
+        return maxPooledViews.get(layoutResId, DEFAULT_MAX_POOLED_VIEWS);
+    }
+
+    /**
+     * Starts inflating layouts in the background until the pool holds {@code count} views of the specified layout, or
+     * as many as its capacity allows.
+     *
+     * @param context       the context whose theme is used to inflate the layouts
+     * @param layoutResId   the layout resource to inflate
+     * @param count         the number of views of that layout the pool should hold
+     */
+    public void prewarm(Context context, int layoutResId, int count) {
+        QueuedInflations queued = queuedInflations.get(layoutResId);
+        int target = Math.min(count, getMaxPooledViews(layoutResId));
+        int missing = target - getPooledCount(layoutResId) - (queued != null ? queued.count : 0);
+        if (missing <= 0) {
+            return;
+        }
+
+        if (queued == null) {
+            queued = new QueuedInflations();
+            queuedInflations.put(layoutResId, queued);
+        }
+        queued.count += missing;
+        queued.context = new WeakReference<>(context);
+        inflateQueued();
+    }
+
+    /**
+     * Runs {@code callback} on the UI thread once all the layouts requested through {@link #prewarm} are inflated. The
+     * callback runs right away if nothing is being inflated. It is dropped if {@link #cancel(Context)} is called with
+     * the same context first, or if the context is an Activity that is finishing by the time the layouts are ready.
+     *
+     * @param context   the context of the form waiting for the layouts
+     * @param callback  the callback to run
+     */
+    public void whenReady(Context context, Runnable callback) {
+        if (pendingInflations == 0 && queuedInflations.size() == 0) {
+            callback.run();
+        } else {
+            readyCallbacks.add(new ReadyCallback(context, callback));
+        }
+    }
+
+    /**
+     * Drops the inflations requested through {@link #prewarm} with the specified context, and the callbacks registered
+     * with it through {@link #whenReady}, for example because its Activity is destroyed. Views already inflated in the
+     * background are still added to the pool.
+     *
+     * @param context   the context of the form that goes away
+     */
+    public void cancel(Context context) {
+        for (int i = queuedInflations.size() - 1; i >= 0; i--) {
+            Context queuedContext = queuedInflations.valueAt(i).context.get();
+            if (queuedContext == null || queuedContext == context) {
+                queuedInflations.removeAt(i);
+            }
+        }
+        for (Inflation inflation : runningInflations) {
+            Context inflationContext = inflation.context.get();
+            if (inflationContext == null || inflationContext == context) {
+                inflation.cancelled = true;
+            }
+        }
+        Iterator<ReadyCallback> callbacks = readyCallbacks.iterator();
+        while (callbacks.hasNext()) {
+            Context callbackContext = callbacks.next().context.get();
+            if (callbackContext == null || callbackContext == context) {
+                callbacks.remove();
+            }
+        }
+        runReadyCallbacks();
+    }
+
+    /**
+     * Returns the number of views of the specified layout that are ready to be used.
+     *
+     * @param layoutResId   the layout resource
+     * @return              the number of pooled views of that layout
+     */
+    public int getPooledCount(int layoutResId) {
+        List<View> views = pooledViews.get(layoutResId);
+        return views != null ? views.size() : 0;
+    }
+
+    /**
+     * Takes a view of the specified layout from the pool. Pooled views inflated with a configuration other than the
+     * one of the context are dropped.
+     *
+     * @param context       the context the view will be used in
+     * @param layoutResId   the layout resource
+     * @return              a pooled view of that layout, or null if none is available
+     */
+    public View obtain(Context context, int layoutResId) {
+        List<View> views = pooledViews.get(layoutResId);
+        Configuration configuration = context.getResources().getConfiguration();
+        while (views != null && !views.isEmpty()) {
+            View view = views.remove(views.size() - 1);
+            if (isInflatedWith(view, configuration)) {
+                ((MutableContextWrapper)view.getContext()).setBaseContext(context);
+                return view;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes a view of the specified layout from the pool, or inflates one on the calling thread if none is available.
+     * Views returned by this method can be given back to the pool with {@link #release}.
+     *
+     * @param context       the context the view will be used in
+     * @param layoutResId   the layout resource
+     * @return              a view of that layout
+     */
+    public View inflate(Context context, int layoutResId) {
+        View view = obtain(context, layoutResId);
+        return view != null ? view : create(context, layoutResId);
+    }
+
+    /**
+     * Gives a view back to the pool. The view is detached from its parent. Views that were not created by this pool,
+     * whose context changed configuration since they were inflated, or that exceed the capacity of the pool, are
+     * dropped.
+     *
+     * @param layoutResId   the layout resource the view was inflated from
+     * @param view          the view to give back
+     */
+    public void release(int layoutResId, View view) {
+        ViewParent parent = view.getParent();
+        if (parent instanceof ViewGroup) {
+            ((ViewGroup)parent).removeView(view);
+        }
+        if (!(view.getContext() instanceof MutableContextWrapper)
+                || getPooledCount(layoutResId) >= getMaxPooledViews(layoutResId)) {
+            return;
+        }
+
+        MutableContextWrapper wrapper = (MutableContextWrapper)view.getContext();
+        if (!isInflatedWith(view, wrapper.getBaseContext().getResources().getConfiguration())) {
+            return;
+        }
+        wrapper.setBaseContext(applicationContext);
+        addToPool(layoutResId, view);
+    }
+
+    /**
+     * Drops all the pooled views.
+     */
+    public void clear() {
+        pooledViews.clear();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_COMPLETE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            clear();
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_LOW) {
+            for (int i = 0; i < pooledViews.size(); i++) {
+                trim(pooledViews.keyAt(i), pooledViews.valueAt(i).size() / 2);
+            }
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // views inflated with the previous configuration can no longer be used, those released later are dropped then
+        clear();
+    }
+
+    private void trim(int layoutResId, int max) {
+        List<View> views = pooledViews.get(layoutResId);
+        while (views != null && views.size() > max) {
+            views.remove(views.size() - 1);
+        }
+    }
+
+    private void addToPool(int layoutResId, View view) {
+        List<View> views = pooledViews.get(layoutResId);
+        if (views == null) {
+            views = new ArrayList<>();
+            pooledViews.put(layoutResId, views);
+        }
+        views.add(view);
+    }
+
+    private View create(Context context, int layoutResId) {
+        // each pooled view needs a context wrapper of its own, so that it can be pointed at the form using it
+        View view = LayoutInflater.from(context).cloneInContext(new MutableContextWrapper(context))
+                .inflate(layoutResId, null);
+        inflatedConfigurations.put(view, new Configuration(context.getResources().getConfiguration()));
+        return view;
+    }
+
+    private boolean isInflatedWith(View view, Configuration configuration) {
+        Configuration inflatedWith = inflatedConfigurations.get(view);
+        return inflatedWith != null && inflatedWith.diff(configuration) == 0;
+    }
+
+    private static boolean isAlive(Context context) {
+        return context != null && !(context instanceof Activity
+                && (((Activity)context).isFinishing() || ((Activity)context).isDestroyed()));
+    }
+
+    private void inflateQueued() {
+        while (pendingInflations < MAX_PENDING_INFLATIONS && queuedInflations.size() > 0) {
+            int layoutResId = queuedInflations.keyAt(0);
+            QueuedInflations queued = queuedInflations.valueAt(0);
+            Context context = queued.context.get();
+            if (context == null || --queued.count == 0) {
+                queuedInflations.removeAt(0);
+            }
+            if (!isAlive(context)) {
+                continue;
+            }
+
+            pendingInflations++;
+            Inflation inflation = new Inflation(layoutResId, context);
+            runningInflations.add(inflation);
+            inflateExecutor.execute(inflation);
+        }
+    }
+
+    private void onInflateFinished(Inflation inflation, View view, boolean inflateOnUiThread) {
+        pendingInflations--;
+        runningInflations.remove(inflation);
+        if (view != null) {
+            // already pointed at the application context by the inflation thread
+            inflatedConfigurations.put(view, inflation.configuration);
+            if (getPooledCount(inflation.layoutResId) < getMaxPooledViews(inflation.layoutResId)) {
+                addToPool(inflation.layoutResId, view);
+            }
+        } else if (inflateOnUiThread && !inflation.cancelled) {
+            Context context = inflation.context.get();
+            if (isAlive(context)) {
+                release(inflation.layoutResId, create(context, inflation.layoutResId));
+            }
+        }
+
+        inflateQueued();
+        runReadyCallbacks();
+    }
+
+    private void runReadyCallbacks() {
+        if (pendingInflations != 0 || queuedInflations.size() != 0 || readyCallbacks.isEmpty()) {
+            return;
+        }
+
+        List<ReadyCallback> callbacks = new ArrayList<>(readyCallbacks);
+        readyCallbacks.clear();
+        for (ReadyCallback callback : callbacks) {
+            if (isAlive(callback.context.get())) {
+                callback.callback.run();
+            }
+        }
+    }
+}
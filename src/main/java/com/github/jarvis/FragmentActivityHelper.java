@@ -20,7 +20,7 @@ public class FragmentActivityHelper {
             // create the retained fragment and data the first time
             formModelFragment = new FormModelFragment();
             fm.beginTransaction().add(formModelFragment, FormModelFragment.TAG).commit();
-            formModelFragment.setModel(new MapFormModel());
+            formModelFragment.setModel(new IndexedFormModel());
         }
 
         return formModelFragment;
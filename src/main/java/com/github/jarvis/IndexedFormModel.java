@@ -0,0 +1,60 @@
+package com.github.jarvis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link FormModel} that stores field values in a flat array. Each field name is resolved once to an integer slot, so
+ * form elements that are bound to this model read and write their values without hashing the field name.
+ */
+public final class IndexedFormModel extends FormModel {
+    private final Map<String,Integer> slots = new HashMap<>();
+    private String[] names = new String[16];
+    private Object[] values = new Object[16];
+    private int size;
+
+    @Override
+    public int resolveSlot(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            if (size == values.length) {
+                names = Arrays.copyOf(names, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            slot = size++;
+            names[slot] = name;
+            slots.put(name, slot);
+        }
+        return slot;
+    }
+
+    @Override
+    protected String getSlotName(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IllegalArgumentException("Unknown slot: " + slot);
+        }
+        return names[slot];
+    }
+
+    @Override
+    public Object getBackingValue(String name) {
+        Integer slot = slots.get(name);
+        return slot != null ? values[slot] : null;
+    }
+
+    @Override
+    public void setBackingValue(String name, Object value) {
+        values[resolveSlot(name)] = value;
+    }
+
+    @Override
+    public Object getBackingValue(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    public void setBackingValue(int slot, Object value) {
+        values[slot] = value;
+    }
+}
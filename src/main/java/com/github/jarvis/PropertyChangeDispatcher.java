@@ -0,0 +1,139 @@
+package com.github.jarvis;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeListenerProxy;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Delivers property change events to listeners registered for all fields or for a single field. It is a drop-in
+ * replacement for {@link java.beans.PropertyChangeSupport} that keeps its listeners in copy-on-write arrays: firing
+ * never takes a lock, and no event is allocated when nobody listens to the changed field. Listeners registered for all
+ * fields are notified first, followed by the listeners of the changed field, each in registration order.
+ */
+final class PropertyChangeDispatcher {
+    private static final PropertyChangeListener[] NO_LISTENERS = new PropertyChangeListener[0];
+
+    private final Object source;
+    private final Object writeLock = new Object();
+    private final ConcurrentMap<String,PropertyChangeListener[]> fieldListeners = new ConcurrentHashMap<>();
+    private volatile PropertyChangeListener[] listeners = NO_LISTENERS;
+
+    /**
+     * Creates a dispatcher that uses {@code source} as the source of the events it fires.
+     *
+     * @param source    the object the events are fired on behalf of
+     */
+    PropertyChangeDispatcher(Object source) {
+        this.source = source;
+    }
+
+    void addPropertyChangeListener(PropertyChangeListener listener) {
+        if (listener instanceof PropertyChangeListenerProxy) {
+            PropertyChangeListenerProxy proxy = (PropertyChangeListenerProxy)listener;
+            addPropertyChangeListener(proxy.getPropertyName(), proxy.getListener());
+        } else if (listener != null) {
+            synchronized (writeLock) {
+                listeners = append(listeners, listener);
+            }
+        }
+    }
+
+    void addPropertyChangeListener(String fieldName, PropertyChangeListener listener) {
+        if (fieldName == null || listener == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            PropertyChangeListener[] current = fieldListeners.get(fieldName);
+            fieldListeners.put(fieldName, append(current != null ? current : NO_LISTENERS, listener));
+        }
+    }
+
+    void removePropertyChangeListener(PropertyChangeListener listener) {
+        if (listener instanceof PropertyChangeListenerProxy) {
+            PropertyChangeListenerProxy proxy = (PropertyChangeListenerProxy)listener;
+            removePropertyChangeListener(proxy.getPropertyName(), proxy.getListener());
+        } else if (listener != null) {
+            synchronized (writeLock) {
+                listeners = remove(listeners, listener);
+            }
+        }
+    }
+
+    void removePropertyChangeListener(String fieldName, PropertyChangeListener listener) {
+        if (fieldName == null || listener == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            PropertyChangeListener[] current = fieldListeners.get(fieldName);
+            if (current == null) {
+                return;
+            }
+            PropertyChangeListener[] updated = remove(current, listener);
+            if (updated.length == 0) {
+                fieldListeners.remove(fieldName);
+            } else {
+                fieldListeners.put(fieldName, updated);
+            }
+        }
+    }
+
+    /**
+     * Indicates whether any listener would be notified of a change to the specified field.
+     *
+     * @param fieldName the field name
+     * @return          true if at least one listener is registered for all fields or for {@code fieldName}
+     */
+    boolean hasListeners(String fieldName) {
+        return listeners.length > 0 || (fieldName != null && fieldListeners.containsKey(fieldName));
+    }
+
+    /**
+     * Notifies the registered listeners that the value of a field changed. Callers are expected to have checked that
+     * the old and new values differ.
+     *
+     * @param fieldName the name of the field that changed
+     * @param oldValue  the previous value of the field
+     * @param newValue  the new value of the field
+     */
+    void firePropertyChange(String fieldName, Object oldValue, Object newValue) {
+        PropertyChangeListener[] common = listeners;
+        PropertyChangeListener[] named = fieldName != null ? fieldListeners.get(fieldName) : null;
+        if (common.length == 0 && named == null) {
+            return;
+        }
+
+        PropertyChangeEvent event = new PropertyChangeEvent(source, fieldName, oldValue, newValue);
+        for (PropertyChangeListener listener : common) {
+            listener.propertyChange(event);
+        }
+        if (named != null) {
+            for (PropertyChangeListener listener : named) {
+                listener.propertyChange(event);
+            }
+        }
+    }
+
+    private static PropertyChangeListener[] append(PropertyChangeListener[] array, PropertyChangeListener listener) {
+        PropertyChangeListener[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = listener;
+        return result;
+    }
+
+    private static PropertyChangeListener[] remove(PropertyChangeListener[] array, PropertyChangeListener listener) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].equals(listener)) {
+                if (array.length == 1) {
+                    return NO_LISTENERS;
+                }
+                PropertyChangeListener[] result = new PropertyChangeListener[array.length - 1];
+                System.arraycopy(array, 0, result, 0, i);
+                System.arraycopy(array, i + 1, result, i, array.length - i - 1);
+                return result;
+            }
+        }
+        return array;
+    }
+}
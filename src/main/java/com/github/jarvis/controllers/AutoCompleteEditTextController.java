@@ -189,6 +189,11 @@ public class AutoCompleteEditTextController extends LabeledFieldController {
         setInputTypeMask(InputType.TYPE_TEXT_VARIATION_PASSWORD, isSecureEntry);
     }
 
+    @Override
+    protected Class<?> getValueType() {
+        return String.class;
+    }
+
     @Override
     protected View createFieldView() {
         final AutoCompleteTextView autoCompleteTextView = new AutoCompleteTextView(getContext());
@@ -207,9 +212,9 @@ public class AutoCompleteEditTextController extends LabeledFieldController {
             });
         }
         refresh(autoCompleteTextView);
-        if (submittedValue != null) {
+        if (!wasViewCreatedBefore() && submittedValue != null) {
             autoCompleteTextView.setText(submittedValue);
-            getModel().setValue(getName(), autoCompleteTextView.getText().toString());
+            setModelValue(autoCompleteTextView.getText().toString());
         }
         ArrayAdapter<AutoCompleteTextViewDataModel> adapter = new ArrayAdapter<AutoCompleteTextViewDataModel>(context,android.R.layout.simple_list_item_1,autoCompleteTextViewDataModelList);
         autoCompleteTextView.setAdapter(adapter);
@@ -225,7 +230,7 @@ public class AutoCompleteEditTextController extends LabeledFieldController {
 
             @Override
             public void afterTextChanged(Editable editable) {
-                getModel().setValue(getName(), autoCompleteTextView.getText().toString());
+                setModelValue(autoCompleteTextView.getText().toString());
             }
         });
 
@@ -239,7 +244,7 @@ public class AutoCompleteEditTextController extends LabeledFieldController {
     }
 
     private void refresh(AutoCompleteTextView autoCompleteTextView) {
-        Object value = getModel().getValue(getName());
+        Object value = getModelValue();
         String valueStr = value != null ? value.toString() : "";
         if (!valueStr.equals(autoCompleteTextView.getText().toString()))
             autoCompleteTextView.setText(valueStr);
@@ -1,8 +1,6 @@
 package com.github.jarvis.controllers;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.FrameLayout;
 
@@ -128,7 +126,7 @@ public abstract class BaseLineController extends FormElementController {
      */
     public List<ValidationError> validateInput() {
         List<ValidationError> errors = new ArrayList<>();
-        Object value = getModel().getValue(getName());
+        Object value = getModelValue();
         ValidationError error;
         for (InputValidator validator : validators) {
             error = validator.validate(value, getName(), getLabel());
@@ -159,10 +157,14 @@ public abstract class BaseLineController extends FormElementController {
      */
     protected abstract View createFieldView();
 
+    @Override
+    protected int getContainerLayoutId() {
+        return R.layout.form_line_element;
+    }
+
     @Override
     protected View createView() {
-        LayoutInflater inflater = (LayoutInflater)getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-        @SuppressLint("InflateParams") View view = inflater != null ? inflater.inflate(R.layout.form_line_element, null) : null;
+        View view = inflateLayout(getContainerLayoutId());
         if (view != null) {
             FrameLayout container = (FrameLayout)view.findViewById(R.id.field_container);
             container.addView(getFieldView());
@@ -170,6 +172,14 @@ public abstract class BaseLineController extends FormElementController {
         return view;
     }
 
+    @Override
+    protected boolean onReleaseView(View view) {
+        ((FrameLayout)view.findViewById(R.id.field_container)).removeAllViews();
+        // the field view is created again from the model along with the next view
+        fieldView = null;
+        return true;
+    }
+
     @Override
     public void setError(String message) {
 
@@ -45,7 +45,7 @@ public class ButtonController extends LabeledFieldController {
     }
 
     private void refresh(TextView textView) {
-        Object value = getModel().getValue(getName());
+        Object value = getModelValue();
         textView.setText(value != null ? value.toString() : "");
         textView.setEnabled(isEnabled);
         if (isEnabled) {
@@ -117,6 +117,11 @@ public class CheckBoxController extends LabeledFieldController {
         }
     }
 
+    @Override
+    protected Class<?> getValueType() {
+        return Set.class;
+    }
+
     @Override
     protected View createFieldView() {
         LayoutInflater inflater = (LayoutInflater) getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
@@ -142,7 +147,7 @@ public class CheckBoxController extends LabeledFieldController {
                             modelValues.remove(value);
                         }
 
-                        getModel().setValue(getName(), modelValues);
+                        setModelValue(modelValues);
 
                         if (isPrefiledValueSet) {
                             validationListener.onValidateInput();
@@ -153,12 +158,12 @@ public class CheckBoxController extends LabeledFieldController {
                 checkboxContainer.addView(checkBox);
                 refresh(checkBox, index);
 
-                for (int i = 0; i < submittedItems.size(); i++) {
+                for (int i = 0; !wasViewCreatedBefore() && i < submittedItems.size(); i++) {
                     if (submittedItems.get(i).trim().equalsIgnoreCase(items.get(index).trim())) {
                         checkBox.setChecked(true);
                         Set<Object> modelValues = new HashSet<>(retrieveModelValues());
 // modelValues.add(submittedItems.get(i).trim());
-                        getModel().setValue(getName(), modelValues);
+                        setModelValue(modelValues);
                     }
                 }
             }
@@ -210,7 +215,7 @@ public class CheckBoxController extends LabeledFieldController {
      * @return The values from the model.
      */
     private Set<Object> retrieveModelValues() {
-        Set<Object> modelValues = (Set<Object>) getModel().getValue(getName());
+        Set<Object> modelValues = (Set<Object>) getModelValue();
         if (modelValues == null) {
             modelValues = new HashSet<>();
         }
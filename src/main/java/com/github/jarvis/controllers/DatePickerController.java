@@ -88,6 +88,11 @@ public class DatePickerController extends LabeledFieldController {
         this(context, name, labelText, placeHolder,submittedDate, isRequired, new SimpleDateFormat("dd-MM-yyyy", Locale.getDefault()), validationListener);
     }
 
+    @Override
+    protected Class<?> getValueType() {
+        return String.class;
+    }
+
     @Override
     protected View createFieldView() {
         final EditText editText = new EditText(getContext());
@@ -114,9 +119,9 @@ public class DatePickerController extends LabeledFieldController {
             }
         });
 
-        if (submittedDated != null && !submittedDated.isEmpty()) {
+        if (!wasViewCreatedBefore() && submittedDated != null && !submittedDated.isEmpty()) {
             editText.setText(submittedDated);
-            getModel().setValue(getName(),submittedDated);
+            setModelValue(submittedDated);
         }
         return editText;
     }
@@ -124,7 +129,7 @@ public class DatePickerController extends LabeledFieldController {
     private void showDatePickerDialog(final Context context, final EditText editText) {
         // don't show dialog again if it's already being shown
         if (datePickerDialog == null) {
-            String date = (String)getModel().getValue(getName());
+            String date = (String)getModelValue();
             Calendar calendar = Calendar.getInstance(Locale.getDefault());
             calendar.setTimeZone(timeZone);
             final SimpleDateFormat format1 = new SimpleDateFormat("dd-MM-yyyy");
@@ -144,7 +149,7 @@ public class DatePickerController extends LabeledFieldController {
                     calendar.set(year, monthOfYear, dayOfMonth);
 
                     String formatted = format1.format(calendar.getTime());
-                    getModel().setValue(getName(), formatted);
+                    setModelValue(formatted);
                     editText.setText(formatted);
                     validationListener.onValidateInput();
 
@@ -167,7 +172,7 @@ public class DatePickerController extends LabeledFieldController {
     }
 
     private void refresh(EditText editText) {
-        String value = (String) getModel().getValue(getName());
+        String value = (String) getModelValue();
         editText.setText(value != null ? value : "");
     }
 
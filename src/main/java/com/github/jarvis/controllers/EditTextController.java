@@ -199,6 +199,11 @@ public class EditTextController extends LabeledFieldController {
         setInputTypeMask(InputType.TYPE_TEXT_VARIATION_PASSWORD, isSecureEntry);
     }
 
+    @Override
+    protected Class<?> getValueType() {
+        return String.class;
+    }
+
     @Override
     protected View createFieldView() {
         final EditText editText = new EditText(getContext());
@@ -208,9 +213,9 @@ public class EditTextController extends LabeledFieldController {
         if (placeholder != null) {
             editText.setHint(placeholder);
         }
-        if (submittedValue != null && !submittedValue.isEmpty()) {
+        if (!wasViewCreatedBefore() && submittedValue != null && !submittedValue.isEmpty()) {
             editText.setText(submittedValue);
-            getModel().setValue(getName(),submittedValue);
+            setModelValue(submittedValue);
         }
         editText.setInputType(inputType);
         if (inputType == InputType.TYPE_CLASS_PHONE) {
@@ -220,7 +225,7 @@ public class EditTextController extends LabeledFieldController {
         }
         refresh(editText);
 
-        if (submittedValue != null && !submittedValue.isEmpty()) {
+        if (!wasViewCreatedBefore() && submittedValue != null && !submittedValue.isEmpty()) {
             editText.setText(submittedValue);
         }
         editText.addTextChangedListener(new TextWatcher() {
@@ -234,7 +239,7 @@ public class EditTextController extends LabeledFieldController {
 
             @Override
             public void afterTextChanged(Editable editable) {
-                getModel().setValue(getName(), editText.getText().toString());
+                setModelValue(editText.getText().toString());
                 validationListener.onValidateInput();
             }
         });
@@ -250,7 +255,7 @@ public class EditTextController extends LabeledFieldController {
     }
 
     private void refresh(EditText editText) {
-        Object value = getModel().getValue(getName());
+        Object value = getModelValue();
         String valueStr = value != null ? value.toString() : "";
         if (!valueStr.equals(editText.getText().toString()))
             editText.setText(valueStr);
@@ -82,6 +82,7 @@ public class FormSectionController extends FormElementController {
         } else {
             elements.put(element.getName(), element);
             orderedElements.add(position, element);
+            onChildElementAdded(element);
             return element;
         }
     }
@@ -116,7 +117,10 @@ public class FormSectionController extends FormElementController {
      */
     public FormElementController removeElement(String name) {
         FormElementController element = elements.remove(name);
-        orderedElements.remove(element);
+        if (element != null) {
+            orderedElements.remove(element);
+            onChildElementRemoved(element);
+        }
         return element;
     }
 
@@ -191,7 +195,10 @@ public class FormSectionController extends FormElementController {
     @Override
     public void refresh() {
         for (FormElementController element : orderedElements) {
-            element.refresh();
+            // the others read the model when their view is created
+            if (element.isViewCreated()) {
+                element.refresh();
+            }
         }
     }
 
@@ -122,6 +122,11 @@ public class ImageGroupController extends LabeledFieldController {
         }
     }
 
+    @Override
+    protected Class<?> getValueType() {
+        return List.class;
+    }
+
     @Override
     protected View createFieldView() {
         LayoutInflater inflater = (LayoutInflater) getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
@@ -142,13 +147,10 @@ public class ImageGroupController extends LabeledFieldController {
                 }
             });
 
-            if(items != null && items.size() > 0) {
-                arrayList = new ArrayList<>();
-                for (int i = 0; i < items.size(); i++) {
-                    arrayList.add(items.get(i));
-                    getModel().setValue(getName(), arrayList);
-                    validationListener.onValidateInput();
-                }
+            if(!wasViewCreatedBefore() && items != null && items.size() > 0) {
+                arrayList = new ArrayList<>(items);
+                setModelValue(arrayList);
+                validationListener.onValidateInput();
             }
             recyclerView.setAdapter(adapter);
             return imageViewContainer;
@@ -165,11 +167,43 @@ public class ImageGroupController extends LabeledFieldController {
 
     }
 
+    @Override
+    protected Object getModelValueSnapshot() {
+        Object value = getModelValue();
+        if (!(value instanceof List<?>)) {
+            return super.getModelValueSnapshot();
+        }
+        // the images are changed in place, see onImagesChanged
+        List<?> images = (List<?>)value;
+        List<Object> snapshot = new ArrayList<>(images.size());
+        for (Object image : images) {
+            if (image instanceof ImageDataModel) {
+                ImageDataModel model = (ImageDataModel)image;
+                image = new ImageDataModel(model.getText(), model.getDrawable(), model.getColor());
+            }
+            snapshot.add(image);
+        }
+        return snapshot;
+    }
+
     @Override
     public void refresh() {
         adapter.notifyDataSetChanged();
     }
 
+    /**
+     * Shows the images again after one of them was changed in place, for example once the image picked from
+     * {@link ImageClickListener#onImageClicked} is set on its {@link ImageDataModel}, or after images were added to or
+     * removed from the list. The list is stored in the model by reference, so the form is not notified of such changes
+     * otherwise, and would keep its previous validation result for this field.
+     */
+    public void onImagesChanged() {
+        onModelValueChangedInPlace();
+        if (isViewCreated()) {
+            refresh();
+        }
+    }
+
 
     /**
      * Returns the status of the values entry.
@@ -186,7 +220,7 @@ public class ImageGroupController extends LabeledFieldController {
      * @return The values from the model.
      */
     private Set<Object> retrieveModelValues() {
-        Set<Object> modelValues = (Set<Object>) getModel().getValue(getName());
+        Set<Object> modelValues = (Set<Object>) getModelValue();
         if (modelValues == null) {
             modelValues = new HashSet<>();
         }
@@ -0,0 +1,75 @@
+package com.github.jarvis.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pages through the items of a {@link SelectionIndex}, so that a {@link SearchableSelectionController} whose items are
+ * all in memory is displayed the same way as one backed by a
+ * {@link SearchableSelectionController.PagedSelectionDataSource}. Items are matched by prefix or fuzzily depending on
+ * the search mode. The matches of the last query are kept, so that loading the following pages does not search the
+ * index again.
+ */
+final class IndexedSelectionDataSource implements SearchableSelectionController.PagedSelectionDataSource {
+    private final SelectionIndex index;
+    private int searchMode;
+    private String lastQuery;
+    // the positions of the items matching lastQuery, or null if all the items match
+    private int[] lastMatches;
+
+    IndexedSelectionDataSource(SelectionIndex index, int searchMode) {
+        this.index = index;
+        this.searchMode = searchMode;
+    }
+
+    /**
+     * Changes how items are matched, for the queries made from now on.
+     *
+     * @param searchMode    {@link SearchableSelectionController#SEARCH_MODE_PREFIX} or
+     *                      {@link SearchableSelectionController#SEARCH_MODE_FUZZY}
+     */
+    synchronized void setSearchMode(int searchMode) {
+        if (this.searchMode != searchMode) {
+            this.searchMode = searchMode;
+            lastQuery = null;
+        }
+    }
+
+    /**
+     * Builds what the queries of the current search mode need, which takes a while for large lists, so that the first
+     * query does not. Must be called in the background.
+     */
+    void prepare() {
+        int mode;
+        synchronized (this) {
+            mode = searchMode;
+        }
+        if (mode == SearchableSelectionController.SEARCH_MODE_FUZZY) {
+            index.getTrigramIndex();
+        }
+    }
+
+    @Override
+    public synchronized List<String> loadPage(String query, int offset, int limit) {
+        String normalized = index.normalize(query);
+        if (!normalized.equals(lastQuery)) {
+            lastQuery = normalized;
+            if (normalized.isEmpty()) {
+                lastMatches = null;
+            } else if (searchMode == SearchableSelectionController.SEARCH_MODE_FUZZY) {
+                lastMatches = index.getTrigramIndex().find(normalized);
+            } else {
+                lastMatches = index.findByPrefix(normalized);
+            }
+        }
+
+        List<String> items = index.getItems();
+        int count = lastMatches != null ? lastMatches.length : items.size();
+        int end = (int)Math.min(count, (long)offset + limit);
+        List<String> page = new ArrayList<>(Math.max(end - offset, 0));
+        for (int i = offset; i < end; i++) {
+            page.add(items.get(lastMatches != null ? lastMatches[i] : i));
+        }
+        return page;
+    }
+}
@@ -1,8 +1,7 @@
 package com.github.jarvis.controllers;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
-import android.view.LayoutInflater;
+import android.util.TypedValue;
 import android.view.View;
 import android.widget.FrameLayout;
 import android.widget.TextView;
@@ -28,6 +27,7 @@ public abstract class LabelTextController extends FormElementController {
     private final String labelText;
     private View fieldView;
     private TextView errorView;
+    private float defaultLabelTextSize;
     private Set<InputValidator> validators;
     private Set<InputValidator> mobileValidators;
 
@@ -149,7 +149,7 @@ public abstract class LabelTextController extends FormElementController {
      */
     public List<ValidationError> validateInput() {
         List<ValidationError> errors = new ArrayList<>();
-        Object value = getModel().getValue(getName());
+        Object value = getModelValue();
         ValidationError error;
         for (InputValidator validator : validators) {
             error = validator.validate(value, getName(), getLabel());
@@ -180,13 +180,18 @@ public abstract class LabelTextController extends FormElementController {
      */
     protected abstract View createFieldView();
 
+    @Override
+    protected int getContainerLayoutId() {
+        return R.layout.form_labeled_element;
+    }
+
     @Override
     protected View createView() {
-        LayoutInflater inflater = (LayoutInflater)getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-        @SuppressLint("InflateParams") View view = inflater != null ? inflater.inflate(R.layout.form_labeled_element, null) : null;
+        View view = inflateLayout(getContainerLayoutId());
         if (view != null) {
             errorView = (TextView) view.findViewById(R.id.field_error);
             TextView label = (TextView)view.findViewById(R.id.field_label);
+            defaultLabelTextSize = label.getTextSize();
             label.setTextSize(17);
             if (labelText == null) {
                 label.setVisibility(View.GONE);
@@ -200,8 +205,26 @@ public abstract class LabelTextController extends FormElementController {
         return view;
     }
 
+    @Override
+    protected boolean onReleaseView(View view) {
+        ((FrameLayout)view.findViewById(R.id.field_container)).removeAllViews();
+        // the field view is created again from the model along with the next view
+        fieldView = null;
+        TextView label = (TextView)view.findViewById(R.id.field_label);
+        label.setTextSize(TypedValue.COMPLEX_UNIT_PX, defaultLabelTextSize);
+        label.setText("");
+        label.setVisibility(View.VISIBLE);
+        errorView.setText("");
+        errorView.setVisibility(View.GONE);
+        errorView = null;
+        return true;
+    }
+
     @Override
     public void setError(String message) {
+        if (errorView == null) {
+            return;
+        }
         if (message == null) {
             errorView.setText("");
             errorView.setVisibility(View.GONE);
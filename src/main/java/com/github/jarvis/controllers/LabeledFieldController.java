@@ -1,8 +1,6 @@
 package com.github.jarvis.controllers;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.FrameLayout;
 import android.widget.TextView;
@@ -13,8 +11,10 @@ import com.github.jarvis.validations.InputValidator;
 import com.github.jarvis.validations.RequiredFieldValidator;
 import com.github.jarvis.validations.RequiredMobileValidator;
 import com.github.jarvis.validations.ValidationError;
+import com.github.jarvis.validations.ValidatorChain;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -29,6 +29,8 @@ public abstract class LabeledFieldController extends FormElementController {
     private View fieldView;
     private TextView errorView;
     private Set<InputValidator> validators;
+    // built lazily from validators, and dropped whenever they change
+    private ValidatorChain validatorChain;
     private Set<InputValidator> mobileValidators;
 
     /**
@@ -100,6 +102,7 @@ public abstract class LabeledFieldController extends FormElementController {
         } else if (!isRequired()) {
             validators.add(REQUIRED_FIELD_VALIDATOR);
         }
+        onValidatorsChanged();
     }
 
     public void setIsMobile(boolean isMobile) {
@@ -108,15 +111,18 @@ public abstract class LabeledFieldController extends FormElementController {
         } else if (! isMobileRequired()) {
             validators.add(REQUIRED_MOBILE_VALIDATOR);
         }
+        onValidatorsChanged();
     }
 
     /**
-     * Changes the validators for the given field.
+     * Changes the validators for the given field. The field orders the validators once, so a set modified later must be
+     * passed again to this method for the change to be noticed.
      *
      * @param newValidators THe new validators to use.
      */
     public void setValidators(Set<InputValidator> newValidators) {
         validators = newValidators;
+        onValidatorsChanged();
     }
 
     /**
@@ -133,12 +139,12 @@ public abstract class LabeledFieldController extends FormElementController {
     }
 
     /**
-     * Indicates whether the input of this field has any validation errors.
+     * Indicates whether the input of this field has any validation errors. Stops at the first error found.
      *
-     * @return  true if there are some validation errors, otherwise false
+     * @return  true if there are no validation errors, otherwise false
      */
     public boolean isValidInput() {
-        return validateInput().isEmpty();
+        return getValidatorChain().isValid(getModelValue(), getName(), getLabel());
     }
 
     /**
@@ -149,16 +155,48 @@ public abstract class LabeledFieldController extends FormElementController {
      */
     public List<ValidationError> validateInput() {
         List<ValidationError> errors = new ArrayList<>();
-        Object value = getModel().getValue(getName());
-        ValidationError error;
-        for (InputValidator validator : validators) {
-            error = validator.validate(value, getName(), getLabel());
-            if (error != null){
-                errors.add(error);
-            }
+        validateInput(errors);
+        return errors;
+    }
+
+    /**
+     * Runs a validation on the user input and adds all the validation errors of this field to the specified
+     * collection.
+     *
+     * @param errors    the collection to add the validation errors to
+     * @return          the number of validation errors added
+     */
+    public int validateInput(Collection<? super ValidationError> errors) {
+        return getValidatorChain().validate(getModelValue(), getName(), getLabel(), errors);
+    }
+
+    /**
+     * Returns the validators of this field in the order they run: from the cheapest to the most expensive, see
+     * {@link com.github.jarvis.validations.CostAwareValidator}.
+     *
+     * @return  the validator chain of this field
+     */
+    public ValidatorChain getValidatorChain() {
+        if (validatorChain == null) {
+            validatorChain = new ValidatorChain(validators, getValueType());
         }
+        return validatorChain;
+    }
 
-        return errors;
+    /**
+     * Returns the type of the values this field stores in the model, used to pick validators specialized for that
+     * type, see {@link com.github.jarvis.validations.ValidatorRegistry}.
+     *
+     * @return  the type of the values of this field, or null if it is unknown
+     */
+    protected Class<?> getValueType() {
+        return null;
+    }
+
+    @Override
+    protected void onValidatorsChanged() {
+        validatorChain = null;
+        super.onValidatorsChanged();
     }
 
     /**
@@ -180,10 +218,14 @@ public abstract class LabeledFieldController extends FormElementController {
      */
     protected abstract View createFieldView();
 
+    @Override
+    protected int getContainerLayoutId() {
+        return R.layout.form_labeled_element;
+    }
+
     @Override
     protected View createView() {
-        LayoutInflater inflater = (LayoutInflater)getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-        @SuppressLint("InflateParams") View view = inflater != null ? inflater.inflate(R.layout.form_labeled_element, null) : null;
+        View view = inflateLayout(getContainerLayoutId());
         if (view != null) {
             errorView = (TextView) view.findViewById(R.id.field_error);
             TextView label = (TextView)view.findViewById(R.id.field_label);
@@ -199,8 +241,25 @@ public abstract class LabeledFieldController extends FormElementController {
         return view;
     }
 
+    @Override
+    protected boolean onReleaseView(View view) {
+        ((FrameLayout)view.findViewById(R.id.field_container)).removeAllViews();
+        // the field view is created again from the model along with the next view
+        fieldView = null;
+        TextView label = (TextView)view.findViewById(R.id.field_label);
+        label.setText("");
+        label.setVisibility(View.VISIBLE);
+        errorView.setText("");
+        errorView.setVisibility(View.GONE);
+        errorView = null;
+        return true;
+    }
+
     @Override
     public void setError(String message) {
+        if (errorView == null) {
+            return;
+        }
         if (message == null) {
             errorView.setText("");
             errorView.setVisibility(View.GONE);
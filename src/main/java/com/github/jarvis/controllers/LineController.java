@@ -153,8 +153,8 @@ public class LineController extends BaseLineController {
         view.setLayoutParams(llp);
         view.setBackgroundColor(Color.BLACK);
 
-        if (submittedValue != null) {
-            getModel().setValue(getName(),submittedValue);
+        if (!wasViewCreatedBefore() && submittedValue != null) {
+            setModelValue(submittedValue);
         }
         refresh(view);
 
@@ -162,7 +162,7 @@ public class LineController extends BaseLineController {
     }
 
     private void refresh(View view) {
-        Object value = getModel().getValue(getName());
+        Object value = getModelValue();
         String valueStr = value != null ? value.toString() : "";
     }
 
@@ -116,6 +116,11 @@ public class RadioButtonController extends LabeledFieldController {
         }
     }
 
+    @Override
+    protected Class<?> getValueType() {
+        return Set.class;
+    }
+
     @Override
     protected View createFieldView() {
         LayoutInflater inflater = (LayoutInflater) getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
@@ -141,7 +146,7 @@ public class RadioButtonController extends LabeledFieldController {
                         } else {
                             modelValues.remove(value);
                         }
-                        getModel().setValue(getName(), modelValues);
+                        setModelValue(modelValues);
                         if (isPrefiledValueSet) {
                             validationListener.onValidateInput();
                         }
@@ -150,12 +155,12 @@ public class RadioButtonController extends LabeledFieldController {
 
                 radioButtonContainer.addView(radioButton);
                 refresh(radioButton, index);
-                for (int i = 0; i < submittedItems.size(); i++) {
+                for (int i = 0; !wasViewCreatedBefore() && i < submittedItems.size(); i++) {
                     if (submittedItems.get(i).equalsIgnoreCase(items.get(index))) {
                         radioButton.setChecked(true);
                         Set<Object> modelValues = new HashSet<>(retrieveModelValues());
                         modelValues.add(submittedItems.get(i));
-                        getModel().setValue(getName(), modelValues);
+                        setModelValue(modelValues);
                     }
                 }
             }
@@ -207,7 +212,7 @@ public class RadioButtonController extends LabeledFieldController {
      * @return The values from the model.
      */
     private Set<Object> retrieveModelValues() {
-        Set<Object> modelValues = (Set<Object>) getModel().getValue(getName());
+        Set<Object> modelValues = (Set<Object>) getModelValue();
         if (modelValues == null) {
             modelValues = new HashSet<>();
         }
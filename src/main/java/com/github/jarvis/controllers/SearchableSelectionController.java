@@ -9,18 +9,21 @@ import android.content.DialogInterface;
 import android.content.DialogInterface.OnDismissListener;
 import android.os.AsyncTask;
 import android.os.AsyncTask.Status;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.InputType;
 import android.text.TextWatcher;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.View.OnClickListener;
 import android.view.View.OnFocusChangeListener;
-import android.widget.AdapterView;
-import android.widget.AdapterView.OnItemClickListener;
-import android.widget.ArrayAdapter;
 import android.widget.EditText;
-import android.widget.ListView;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.github.jarvis.FormController;
 import com.github.jarvis.dynamicformbuilder.R;
@@ -29,31 +32,67 @@ import com.github.jarvis.validations.InputValidator;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * Represents a field that allows a user to select from a list of items, with the ability to search for specific items.
  * It also allows for free-form entry if the input text does not exist in the predefined list. This field is useful when
  * the number of items are large. While the list of items are retrieved in the background from the data source, a
- * loading indicator is displayed. For similar functionality, but with a small number of items, use
- * {@link SelectionController} instead.
+ * loading indicator is displayed. The items are shared with the other fields using the same data source, see
+ * {@link SelectionItemsCache}. For catalogs too large to load at once, a {@link PagedSelectionDataSource} can be
+ * used instead: the dialog opens immediately and more items are loaded while the list scrolls. For similar
+ * functionality, but with a small number of items, use {@link SelectionController} instead.
  * <p/>
  * For the field value, the associated FormModel must return a String representing the currently selected item.
  * If the value does not exist in the list, 'Other (x)' will be displayed, where 'x' is the field value. No selection
  * can be represented by returning {@code null} for the value of the field.
  */
 public class SearchableSelectionController extends LabeledFieldController {
+    /**
+     * Matches the items starting with the search text, ignoring case. This is the default search mode.
+     */
+    public static final int SEARCH_MODE_PREFIX = 0;
+    /**
+     * Matches the items containing the search text anywhere, and the items close to it despite typos, best matches
+     * first. Only the first thousand matches are listed, which keeps every query fast on lists of any size.
+     */
+    public static final int SEARCH_MODE_FUZZY = 1;
+
+    private static final String TAG = "SearchableSelection";
+    // shared by the filter executors of all the controllers, which each run their own queries one at a time
+    private static final ExecutorService FILTER_POOL = Executors.newCachedThreadPool();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    // comparing larger lists row by row costs more than redisplaying them
+    private static final int MAX_DIFFED_ITEMS = 1000;
+    private static final int PAGE_SIZE = 50;
+    // the next page is loaded when the last visible row is this close to the end of the list
+    private static final int PREFETCH_DISTANCE = 10;
     private final int editTextId = FormController.generateViewId();
 
     private final String placeholder;
     private boolean isFreeFormTextAllowed = true;
+    // read by the task loading the items
+    private volatile int searchMode = SEARCH_MODE_PREFIX;
     private Dialog selectionDialog = null;
     private final SelectionDataSource dataSource;
-    private List<String> items = null;
+    // null until the items of dataSource are indexed
+    private PagedSelectionDataSource pagedDataSource = null;
     private final LoadItemsTask loadItemsTask;
     private ProgressDialog loadingIndicator;
     private boolean otherSelectionIsShowing = false;
+    // incremented for every query, so that the results of older ones are dropped
+    private int filterGeneration;
+    private Future<?> pendingFilter;
+    // queries are filtered one at a time, in the order they were typed
+    private final SerialExecutor filterExecutor = new SerialExecutor(FILTER_POOL);
+    private String filterQuery = "";
+    // the number of items loaded from pagedDataSource for filterQuery, not counting the free-form entry
+    private int loadedItemCount;
+    private boolean allItemsLoaded;
 
     /**
      * An interface that provides the list of items to display for the {@link SearchableSelectionController}.
@@ -68,6 +107,43 @@ public class SearchableSelectionController extends LabeledFieldController {
         List<String> getItems();
     }
 
+    /**
+     * A {@link SelectionDataSource} whose items are shared with the other data sources having the same key, see
+     * {@link SelectionItemsCache}. Unlike other data sources, whose items are cached for as long as the instance is
+     * alive, such items are still cached when the data source is recreated, for example after a rotation.
+     */
+    public interface CacheableSelectionDataSource extends SelectionDataSource {
+        /**
+         * Returns the key identifying the items of this data source. Data sources with equal keys must provide the
+         * same items.
+         *
+         * @return the key of the items, such as the name of the list
+         */
+        String getCacheKey();
+    }
+
+    /**
+     * An interface that provides the items to display for the {@link SearchableSelectionController} one page at a
+     * time, so that large catalogs can be searched without loading all their items. How the items are matched against
+     * the query is up to the data source.
+     */
+    public interface PagedSelectionDataSource {
+        /**
+         * Returns a page of the items matching the specified query. This method will be called by the
+         * {@link SearchableSelectionController} in a background thread, for the first page as soon as the query
+         * changes and for the following ones while the list scrolls.
+         *
+         * @param query     the text typed by the user, trimmed, or an empty string to return all the items
+         * @param offset    the number of matching items to skip
+         * @param limit     the maximum number of items to return
+         * @return a list of at most {@code limit} items; a shorter list indicates that there are no more items.
+         * @throws RuntimeException if the items could not be loaded, for example because the catalog could not be
+         *                          reached. The pages already loaded for the query stay displayed but no more are
+         *                          loaded; the user can retry by changing the query.
+         */
+        List<String> loadPage(String query, int offset, int limit);
+    }
+
     /**
      * Creates a new instance of a selection field.
      *
@@ -83,7 +159,7 @@ public class SearchableSelectionController extends LabeledFieldController {
         this.placeholder = placeholder;
         this.dataSource = dataSource;
 
-        loadItemsTask = new LoadItemsTask();
+        loadItemsTask = new LoadItemsTask(SelectionItemsCache.getInstance(ctx));
         loadItemsTask.execute();
     }
 
@@ -102,10 +178,46 @@ public class SearchableSelectionController extends LabeledFieldController {
         this.placeholder = placeholder;
         this.dataSource = dataSource;
 
-        loadItemsTask = new LoadItemsTask();
+        loadItemsTask = new LoadItemsTask(SelectionItemsCache.getInstance(ctx));
         loadItemsTask.execute();
     }
 
+    /**
+     * Creates a new instance of a selection field whose items are loaded one page at a time.
+     *
+     * @param ctx           the Android context
+     * @param name          the name of the field
+     * @param labelText     the label to display beside the field. Set to {@code null} to not show a label.
+     * @param isRequired    indicates if the field is required or not
+     * @param placeholder   a placeholder text to show when the input field is empty
+     * @param dataSource    the data source that provides the pages of items to display
+     */
+    public SearchableSelectionController(Context ctx, String name, String labelText, boolean isRequired, String placeholder, PagedSelectionDataSource dataSource) {
+        super(ctx, name, labelText, isRequired);
+        this.placeholder = placeholder;
+        this.dataSource = null;
+        this.pagedDataSource = dataSource;
+        loadItemsTask = null;
+    }
+
+    /**
+     * Creates a new instance of a selection field whose items are loaded one page at a time.
+     *
+     * @param ctx           the Android context
+     * @param name          the name of the field
+     * @param labelText     the label to display beside the field. Set to {@code null} to not show a label.
+     * @param validators    contains the validations to process on the field
+     * @param placeholder   a placeholder text to show when the input field is empty
+     * @param dataSource    the data source that provides the pages of items to display
+     */
+    public SearchableSelectionController(Context ctx, String name, String labelText, Set<InputValidator> validators, String placeholder, PagedSelectionDataSource dataSource) {
+        super(ctx, name, labelText, validators);
+        this.placeholder = placeholder;
+        this.dataSource = null;
+        this.pagedDataSource = dataSource;
+        loadItemsTask = null;
+    }
+
 
     public void setFreeFormTextAllowed(boolean allowed) {
         isFreeFormTextAllowed = allowed;
@@ -115,6 +227,39 @@ public class SearchableSelectionController extends LabeledFieldController {
         return isFreeFormTextAllowed;
     }
 
+    /**
+     * Sets how the items are matched against the search text. Only applies to the items of a
+     * {@link SelectionDataSource}: a {@link PagedSelectionDataSource} matches its items itself.
+     *
+     * @param searchMode    {@link #SEARCH_MODE_PREFIX} or {@link #SEARCH_MODE_FUZZY}
+     */
+    public void setSearchMode(int searchMode) {
+        if (searchMode != SEARCH_MODE_PREFIX && searchMode != SEARCH_MODE_FUZZY) {
+            throw new IllegalArgumentException("Unknown search mode: " + searchMode);
+        }
+        this.searchMode = searchMode;
+        if (pagedDataSource instanceof IndexedSelectionDataSource) {
+            final IndexedSelectionDataSource indexedDataSource = (IndexedSelectionDataSource)pagedDataSource;
+            indexedDataSource.setSearchMode(searchMode);
+            // queries run on the same executor, so the next one waits for the index instead of building it again
+            filterExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    indexedDataSource.prepare();
+                }
+            });
+        }
+    }
+
+    public int getSearchMode() {
+        return searchMode;
+    }
+
+    @Override
+    protected Class<?> getValueType() {
+        return String.class;
+    }
+
     protected View createFieldView() {
         final EditText editText = new EditText(getContext());
         editText.setId(editTextId);
@@ -147,7 +292,7 @@ public class SearchableSelectionController extends LabeledFieldController {
 
     @SuppressLint("Assert")
     private void showSelectionDialog(final Context context, final EditText editText) {
-        if (items == null) {
+        if (pagedDataSource == null) {
             assert(loadItemsTask.getStatus() != Status.FINISHED);
             loadItemsTask.runTaskOnFinished(new Runnable() {
                 @Override
@@ -174,10 +319,25 @@ public class SearchableSelectionController extends LabeledFieldController {
             builder.setTitle("Select " + getLabel());
 
             View searchableList = LayoutInflater.from(context).inflate(R.layout.searchable_listview, null);
-            final List<String> filteredItems = new ArrayList<String>(items);
-            final ArrayAdapter<String> itemsAdapter = new ArrayAdapter<String>(context, android.R.layout.simple_list_item_1, android.R.id.text1, filteredItems);
-
             final EditText searchField = (EditText)searchableList.findViewById(R.id.search_field);
+            final SelectionListAdapter itemsAdapter = new SelectionListAdapter(new SelectionListAdapter.OnItemClickListener() {
+
+                @Override
+                public void onItemClick(int position, String item) {
+                    String selection;
+                    if (otherSelectionIsShowing && position == 0) {
+                        selection = searchField.getText().toString();
+                    } else {
+                        selection = item;
+                    }
+                    setModelValue(selection);
+                    editText.setText(selection);
+                    selectionDialog.dismiss();
+                }
+            });
+            otherSelectionIsShowing = false;
+            loadItems("", false, itemsAdapter);
+
             searchField.addTextChangedListener(new TextWatcher() {
 
                 @Override
@@ -190,46 +350,21 @@ public class SearchableSelectionController extends LabeledFieldController {
 
                 @Override
                 public void afterTextChanged(Editable s) {
-                    String text = s.toString().trim();
-                    String textLowerCase = text.toLowerCase(Locale.getDefault());
-                    filteredItems.clear();
-                    if (s.length() > 0) {
-                        for (String item : items) {
-                            if (item.toLowerCase(Locale.getDefault()).startsWith(textLowerCase)) {
-                                filteredItems.add(item);
-                            }
-                        }
-                    } else {
-                        filteredItems.addAll(items);
-                    }
-
-                    otherSelectionIsShowing = false;
-                    if (isFreeFormTextAllowed
-                            && !text.isEmpty()
-                            && (filteredItems.size() != 1 || !filteredItems.get(0).equalsIgnoreCase(textLowerCase))) {
-                        filteredItems.add(0, "Other (" + text + ")");
-                        otherSelectionIsShowing = true;
-                    }
-
-                    itemsAdapter.notifyDataSetChanged();
+                    loadItems(s.toString().trim(), false, itemsAdapter);
                 }
             });
 
-            final ListView listView = (ListView)searchableList.findViewById(R.id.selection_list);
+            RecyclerView listView = (RecyclerView)searchableList.findViewById(R.id.selection_list);
+            final LinearLayoutManager layoutManager = new LinearLayoutManager(context);
+            listView.setLayoutManager(layoutManager);
             listView.setAdapter(itemsAdapter);
-            listView.setOnItemClickListener(new OnItemClickListener() {
+            listView.addOnScrollListener(new RecyclerView.OnScrollListener() {
 
                 @Override
-                public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-                    String selection;
-                    if (otherSelectionIsShowing && position == 0) {
-                        selection = searchField.getText().toString();
-                    } else {
-                        selection = itemsAdapter.getItem(position);
+                public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                    if (layoutManager.findLastVisibleItemPosition() >= layoutManager.getItemCount() - PREFETCH_DISTANCE) {
+                        loadItems(filterQuery, true, itemsAdapter);
                     }
-                    getModel().setValue(getName(), selection);
-                    editText.setText(selection);
-                    selectionDialog.dismiss();
                 }
             });
 
@@ -240,6 +375,7 @@ public class SearchableSelectionController extends LabeledFieldController {
 
                 @Override
                 public void onDismiss(DialogInterface dialog) {
+                    cancelFiltering();
                     selectionDialog = null;
                 }
             });
@@ -248,12 +384,116 @@ public class SearchableSelectionController extends LabeledFieldController {
         }
     }
 
+    /**
+     * Loads the first page of the items matching the specified text in the background, or the next page of the current
+     * query, and displays it unless a newer query was started meanwhile. A first page replaces the displayed items and
+     * only the rows that changed are updated, unless the lists are too large to be compared; a next page is appended.
+     */
+    private void loadItems(final String text, final boolean nextPage, final SelectionListAdapter itemsAdapter) {
+        if (nextPage) {
+            if (pendingFilter != null || allItemsLoaded) {
+                return;
+            }
+        } else {
+            cancelFiltering();
+            filterQuery = text;
+            loadedItemCount = 0;
+            allItemsLoaded = false;
+        }
+        final int generation = filterGeneration;
+        final int offset = loadedItemCount;
+        final PagedSelectionDataSource source = pagedDataSource;
+        final List<String> shownItems = itemsAdapter.getItems();
+        final boolean otherAllowed = !nextPage && isFreeFormTextAllowed && !text.isEmpty();
+
+        FutureTask<Void> filter = new FutureTask<>(new Runnable() {
+            @Override
+            public void run() {
+                final List<String> page;
+                try {
+                    page = source.loadPage(text, offset, PAGE_SIZE);
+                } catch (RuntimeException e) {
+                    // a remote catalog may fail at any time: stop paging this query and keep the dialog usable, typing
+                    // another query tries again
+                    Log.w(TAG, "Could not load the items matching \"" + text + "\"", e);
+                    MAIN_HANDLER.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (generation != filterGeneration) {
+                                return;
+                            }
+                            pendingFilter = null;
+                            allItemsLoaded = true;
+                            if (!nextPage) {
+                                // the items of the previous query do not match this one
+                                List<String> newItems = new ArrayList<>(1);
+                                if (otherAllowed) {
+                                    newItems.add("Other (" + text + ")");
+                                }
+                                otherSelectionIsShowing = otherAllowed;
+                                itemsAdapter.setItems(newItems, null);
+                            }
+                        }
+                    });
+                    return;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+
+                final boolean otherShowing = otherAllowed
+                        && (page.size() != 1 || !page.get(0).equalsIgnoreCase(text));
+                final List<String> newItems = new ArrayList<>((nextPage ? shownItems.size() : 1) + page.size());
+                if (nextPage) {
+                    newItems.addAll(shownItems);
+                } else if (otherShowing) {
+                    newItems.add("Other (" + text + ")");
+                }
+                newItems.addAll(page);
+
+                final DiffUtil.DiffResult diff =
+                        !nextPage && shownItems.size() <= MAX_DIFFED_ITEMS && newItems.size() <= MAX_DIFFED_ITEMS
+                                ? DiffUtil.calculateDiff(new SelectionListAdapter.ItemsDiff(shownItems, newItems), false)
+                                : null;
+
+                MAIN_HANDLER.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        // a newer query started meanwhile, or the dialog was dismissed
+                        if (generation != filterGeneration) {
+                            return;
+                        }
+                        pendingFilter = null;
+                        loadedItemCount = offset + page.size();
+                        allItemsLoaded = page.size() < PAGE_SIZE;
+                        if (nextPage) {
+                            itemsAdapter.appendItems(newItems);
+                        } else {
+                            otherSelectionIsShowing = otherShowing;
+                            itemsAdapter.setItems(newItems, diff);
+                        }
+                    }
+                });
+            }
+        }, null);
+        pendingFilter = filter;
+        filterExecutor.execute(filter);
+    }
+
+    private void cancelFiltering() {
+        filterGeneration++;
+        if (pendingFilter != null) {
+            pendingFilter.cancel(true);
+            pendingFilter = null;
+        }
+    }
+
     private EditText getEditText() {
         return (EditText)getView().findViewById(editTextId);
     }
 
     private void refresh(EditText editText) {
-        String value = (String)getModel().getValue(getName());
+        String value = (String)getModelValue();
         editText.setText(value != null ? value : "");
     }
 
@@ -262,23 +502,34 @@ public class SearchableSelectionController extends LabeledFieldController {
         refresh(getEditText());
     }
 
-    private class LoadItemsTask extends AsyncTask<Void, Void, List<String>> {
+    private class LoadItemsTask extends AsyncTask<Void, Void, SelectionIndex> {
 
+        final SelectionItemsCache itemsCache;
         Runnable doneRunnable;
 
+        LoadItemsTask(SelectionItemsCache itemsCache) {
+            this.itemsCache = itemsCache;
+        }
+
         @Override
-        protected List<String> doInBackground(Void... params) {
-            return dataSource.getItems();
+        protected SelectionIndex doInBackground(Void... params) {
+            // indexing large lists takes a while, so it is done here rather than on the first search
+            SelectionIndex index = itemsCache.getIndex(dataSource);
+            if (searchMode == SEARCH_MODE_FUZZY) {
+                // built here as well, so that the first fuzzy search does not wait for it
+                index.getTrigramIndex();
+            }
+            return index;
         }
 
         @Override
-        protected void onPostExecute(List<String> results) {
+        protected void onPostExecute(SelectionIndex results) {
             if (loadingIndicator != null) {
                 loadingIndicator.dismiss();
                 loadingIndicator = null;
             }
 
-            items = results;
+            pagedDataSource = new IndexedSelectionDataSource(results, searchMode);
 
             if (doneRunnable != null) {
                 doneRunnable.run();
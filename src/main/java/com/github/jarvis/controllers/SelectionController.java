@@ -177,7 +177,7 @@ public class SelectionController extends LabeledFieldController {
                     }
                 }
 
-                getModel().setValue(getName(), value);
+                setModelValue(value);
             }
 
             @Override
@@ -193,15 +193,15 @@ public class SelectionController extends LabeledFieldController {
         int spinnerPosition = spinnerViewAdapter.getPosition(submittedValue);
 
 //set the default according to value
-        if(spinnerPosition>=0) {
+        if(!wasViewCreatedBefore() && spinnerPosition>=0) {
             spinnerView.setSelection(spinnerPosition);
-            getModel().setValue(getName(), submittedValue);
+            setModelValue(submittedValue);
         }
         return spinnerView;
     }
 
     private void refresh(Spinner spinner) {
-        Object value = getModel().getValue(getName());
+        Object value = getModelValue();
         int selectionIndex = items.size()-1;    // index of last item shows the 'prompt'
 
         if (values != null) {
@@ -0,0 +1,149 @@
+package com.github.jarvis.controllers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable index of the items of a {@link SearchableSelectionController}, answering case-insensitive prefix queries
+ * with a binary search. The items are lowercased once, when the index is built, and kept sorted along with their
+ * position in the original list, so queries neither lowercase the items nor allocate strings. Building the index takes
+ * a while for large lists, so it should be done in the background. Infix and fuzzy queries are answered by a
+ * {@link TrigramIndex}, built separately since not every field needs one.
+ */
+final class SelectionIndex {
+    private final List<String> items;
+    private final Locale locale;
+    // the lowercased items, sorted
+    private final String[] keys;
+    // the position in items of each key
+    private final int[] positions;
+    // built on first use, guarded by this
+    private TrigramIndex trigramIndex;
+
+    /**
+     * Builds the index of the specified items, lowercased with the default locale.
+     *
+     * @param items the items to index, which must not be modified afterwards
+     */
+    SelectionIndex(List<String> items) {
+        this.items = items != null ? items : Collections.<String>emptyList();
+        this.locale = Locale.getDefault();
+
+        int size = this.items.size();
+        final String[] normalized = new String[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            normalized[i] = this.items.get(i).toLowerCase(locale);
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                return normalized[lhs].compareTo(normalized[rhs]);
+            }
+        });
+
+        keys = new String[size];
+        positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = order[i];
+            keys[i] = normalized[order[i]];
+        }
+    }
+
+    /**
+     * Returns the items of this index, in their original order.
+     *
+     * @return  the indexed items
+     */
+    List<String> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the locale the items were lowercased with.
+     *
+     * @return  the locale of this index
+     */
+    Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Returns the trigram index of the items, answering fuzzy queries. It is built on the first call, which takes a
+     * while for large lists, so that call should be made in the background.
+     *
+     * @return  the trigram index of the items
+     */
+    synchronized TrigramIndex getTrigramIndex() {
+        if (trigramIndex == null) {
+            String[] normalized = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                normalized[positions[i]] = keys[i];
+            }
+            trigramIndex = new TrigramIndex(normalized);
+        }
+        return trigramIndex;
+    }
+
+    /**
+     * Lowercases the specified query the same way the items were.
+     *
+     * @param query the query
+     * @return      the normalized query
+     */
+    String normalize(String query) {
+        return query.toLowerCase(locale);
+    }
+
+    /**
+     * Returns the positions of the items starting with the specified prefix, ignoring case.
+     *
+     * @param prefix    the prefix, lowercased with {@link #normalize(String)}
+     * @return          the positions of the matching items, in ascending order
+     */
+    int[] findByPrefix(String prefix) {
+        int from = lowerBound(prefix, 0);
+        int to = lowerBound(prefix, 1);
+        int[] matches = Arrays.copyOfRange(positions, from, to);
+        // the keys are sorted alphabetically, the items must keep their original order
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    /**
+     * Returns the first key that compares to the prefix with a result of at least {@code bound}: with 0, the first key
+     * starting with the prefix or following it, and with 1, the first key following all those starting with it.
+     */
+    private int lowerBound(String prefix, int bound) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparePrefix(keys[mid], prefix) < bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the beginning of the key with the prefix, returning 0 if the key starts with the prefix.
+     */
+    private static int comparePrefix(String key, String prefix) {
+        int length = Math.min(key.length(), prefix.length());
+        for (int i = 0; i < length; i++) {
+            char k = key.charAt(i);
+            char p = prefix.charAt(i);
+            if (k != p) {
+                return k - p;
+            }
+        }
+        return key.length() < prefix.length() ? -1 : 0;
+    }
+}
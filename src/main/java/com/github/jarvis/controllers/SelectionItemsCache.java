@@ -0,0 +1,386 @@
+package com.github.jarvis.controllers;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.SystemClock;
+
+import com.github.jarvis.controllers.SearchableSelectionController.CacheableSelectionDataSource;
+import com.github.jarvis.controllers.SearchableSelectionController.SelectionDataSource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A process-wide cache of the items of the {@link SelectionDataSource}s of {@link SearchableSelectionController}s, so
+ * that the same list is loaded and indexed once rather than for every form, every field and every rotation. Items are
+ * kept for a limited time, and only for the most recently used data sources.
+ * <p/>
+ * Data sources are identified by identity, unless they implement {@link CacheableSelectionDataSource}: different
+ * instances with the same key then share their items, which can also be saved to a snapshot directory, see
+ * {@link #setSnapshotDirectory(File)}, so that they survive the process. Controllers requesting the items of a data
+ * source that is being loaded wait for that load instead of starting another one.
+ * <p/>
+ * Other data sources are only referenced weakly, so the cache does not keep alive the Activity or Fragment they are
+ * usually declared in, and their items are dropped once they are garbage collected. Since such a data source is
+ * recreated with its Activity, only the items of {@link CacheableSelectionDataSource}s survive a configuration change.
+ * <p/>
+ * Each entry holds the index of its items, which can be as large as the items themselves, so the cache gives up the
+ * least recently used entries when the application goes to the background, and all of them when memory runs low.
+ */
+public class SelectionItemsCache implements ComponentCallbacks2 {
+    /**
+     * The default time items are cached, in milliseconds.
+     */
+    public static final long DEFAULT_TTL_MS = 30 * 60 * 1000;
+
+    private static final int MAX_CACHED_SOURCES = 16;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static SelectionItemsCache instance;
+
+    // guarded by this
+    private final Map<Object,CachedItems> entries = new LinkedHashMap<Object,CachedItems>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object,CachedItems> eldest) {
+            return size() > MAX_CACHED_SOURCES;
+        }
+    };
+    private final ReferenceQueue<SelectionDataSource> collectedSources = new ReferenceQueue<>();
+    // guarded by this
+    private long ttlMillis = DEFAULT_TTL_MS;
+    // guarded by this
+    private File snapshotDirectory;
+
+    private static final class CachedItems {
+        final FutureTask<SelectionIndex> load;
+        // guarded by the cache, set once the load completes
+        long expiresAt = Long.MAX_VALUE;
+
+        CachedItems(FutureTask<SelectionIndex> load) {
+            this.load = load;
+        }
+    }
+
+    /**
+     * Identifies a data source that does not provide a key of its own, without keeping it alive.
+     */
+    private static final class IdentityKey extends WeakReference<SelectionDataSource> {
+        private final int hash;
+
+        IdentityKey(SelectionDataSource dataSource, ReferenceQueue<SelectionDataSource> queue) {
+            super(dataSource, queue);
+            hash = System.identityHashCode(dataSource);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            // a cleared key only equals itself, so that it can still be removed
+            if (this == o) {
+                return true;
+            }
+            SelectionDataSource dataSource = get();
+            return dataSource != null && o instanceof IdentityKey && ((IdentityKey)o).get() == dataSource;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Returns the cache shared by all forms of the application.
+     *
+     * @param context   any context of the application
+     * @return          the shared cache
+     */
+    public static synchronized SelectionItemsCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new SelectionItemsCache();
+            context.getApplicationContext().registerComponentCallbacks(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Sets the time items are cached, for the items loaded from now on.
+     *
+     * @param ttlMillis the time items are cached, in milliseconds
+     */
+    public synchronized void setTimeToLive(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Sets the directory the items of {@link CacheableSelectionDataSource}s are saved to, and read back from while they
+     * are younger than the time to live. Snapshots are disabled by default.
+     *
+     * @param directory the snapshot directory, such as a subdirectory of {@link Context#getCacheDir()}, or null to
+     *                  disable snapshots
+     */
+    public synchronized void setSnapshotDirectory(File directory) {
+        snapshotDirectory = directory;
+    }
+
+    /**
+     * Forgets the items of the specified data source, so that they are loaded again the next time they are requested.
+     *
+     * @param dataSource    the data source
+     */
+    public void invalidate(SelectionDataSource dataSource) {
+        Object key = keyOf(dataSource);
+        File snapshot;
+        synchronized (this) {
+            expungeCollectedSources();
+            entries.remove(key);
+            snapshot = snapshotFileOf(key);
+        }
+        if (snapshot != null) {
+            snapshot.delete();
+        }
+    }
+
+    /**
+     * Forgets all the cached items. Snapshots are kept.
+     */
+    public synchronized void clear() {
+        expungeCollectedSources();
+        entries.clear();
+    }
+
+    /**
+     * Returns the index of the items of the specified data source, loading them first unless they are cached. Blocks
+     * until the items are loaded, so it must be called in a background thread.
+     */
+    SelectionIndex getIndex(final SelectionDataSource dataSource) {
+        final Object key = keyOf(dataSource);
+        final CachedItems entry;
+        boolean loader = false;
+        synchronized (this) {
+            expungeCollectedSources();
+            CachedItems cached = entries.get(key);
+            if (cached != null && isUsable(cached)) {
+                entry = cached;
+            } else {
+                final File snapshot = snapshotFileOf(key);
+                // the task forgets its callable, and so the data source, once it has run
+                entry = new CachedItems(new FutureTask<>(new Callable<SelectionIndex>() {
+                    @Override
+                    public SelectionIndex call() throws Exception {
+                        return new SelectionIndex(loadItems(dataSource, key, snapshot));
+                    }
+                }));
+                entries.put(key, entry);
+                loader = true;
+            }
+        }
+
+        if (loader) {
+            entry.load.run();
+            synchronized (this) {
+                entry.expiresAt = SystemClock.elapsedRealtime() + ttlMillis;
+            }
+        }
+
+        try {
+            return getUninterruptibly(entry.load);
+        } catch (ExecutionException e) {
+            // failures are not cached, the next request loads the items again
+            synchronized (this) {
+                if (entries.get(key) == entry) {
+                    entries.remove(key);
+                }
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public synchronized void onConfigurationChanged(Configuration newConfig) {
+        // the indexes built for the previous locale would only be dropped when requested again
+        expungeCollectedSources();
+        Iterator<CachedItems> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (!isUsable(it.next())) {
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_COMPLETE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            clear();
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_LOW) {
+            synchronized (this) {
+                expungeCollectedSources();
+                // the entries are iterated from the least recently used
+                int count = entries.size() / 2;
+                Iterator<CachedItems> it = entries.values().iterator();
+                for (int i = 0; i < count; i++) {
+                    it.next();
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    private boolean isUsable(CachedItems entry) {
+        if (!entry.load.isDone()) {
+            return true;
+        }
+        if (entry.expiresAt <= SystemClock.elapsedRealtime()) {
+            return false;
+        }
+        try {
+            // the items are lowercased with the locale at the time they were indexed
+            return entry.load.get().getLocale().equals(Locale.getDefault());
+        } catch (InterruptedException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    private List<String> loadItems(SelectionDataSource dataSource, Object key, File snapshot) {
+        if (snapshot != null) {
+            List<String> items = readSnapshot(snapshot, (String)key);
+            if (items != null) {
+                return items;
+            }
+        }
+
+        List<String> items = dataSource.getItems();
+        if (snapshot != null && items != null) {
+            writeSnapshot(snapshot, (String)key, items);
+        }
+        return items;
+    }
+
+    private List<String> readSnapshot(File snapshot, String key) {
+        long ttl;
+        synchronized (this) {
+            ttl = ttlMillis;
+        }
+        if (!snapshot.isFile() || snapshot.lastModified() + ttl <= System.currentTimeMillis()) {
+            return null;
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)));
+            try {
+                // the file name is a hash of the key, which may collide
+                if (in.readInt() != SNAPSHOT_VERSION || !in.readUTF().equals(key)) {
+                    return null;
+                }
+                int size = in.readInt();
+                List<String> items = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    items.add(in.readUTF());
+                }
+                return items;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeSnapshot(File snapshot, String key, List<String> items) {
+        File directory = snapshot.getParentFile();
+        File temporary = new File(directory, snapshot.getName() + ".tmp");
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                return;
+            }
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+            try {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeUTF(key);
+                out.writeInt(items.size());
+                for (String item : items) {
+                    out.writeUTF(item);
+                }
+            } finally {
+                out.close();
+            }
+            // readers never see a partially written snapshot
+            if (!temporary.renameTo(snapshot)) {
+                temporary.delete();
+            }
+        } catch (IOException e) {
+            // the snapshot is an optimization, the items are loaded from the data source next time
+            temporary.delete();
+        }
+    }
+
+    private Object keyOf(SelectionDataSource dataSource) {
+        if (dataSource instanceof CacheableSelectionDataSource) {
+            return ((CacheableSelectionDataSource)dataSource).getCacheKey();
+        }
+        return new IdentityKey(dataSource, collectedSources);
+    }
+
+    // must be called holding the lock
+    private void expungeCollectedSources() {
+        Reference<? extends SelectionDataSource> key;
+        while ((key = collectedSources.poll()) != null) {
+            entries.remove(key);
+        }
+    }
+
+    // must be called holding the lock
+    private File snapshotFileOf(Object key) {
+        if (snapshotDirectory == null || !(key instanceof String)) {
+            return null;
+        }
+        return new File(snapshotDirectory, "selection-" + Integer.toHexString(key.hashCode()));
+    }
+
+    private static <T> T getUninterruptibly(FutureTask<T> future) throws ExecutionException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
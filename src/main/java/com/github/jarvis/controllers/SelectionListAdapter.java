@@ -0,0 +1,133 @@
+package com.github.jarvis.controllers;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The adapter of the list of items of the selection dialog of a {@link SearchableSelectionController}. The list of
+ * items is replaced as a whole, never modified in place, so it can be read in the background to compute the difference
+ * with the next list, see {@link ItemsDiff}.
+ */
+class SelectionListAdapter extends RecyclerView.Adapter<SelectionListAdapter.ViewHolder> {
+    private final OnItemClickListener listener;
+    private List<String> items = Collections.emptyList();
+
+    interface OnItemClickListener {
+        void onItemClick(int position, String item);
+    }
+
+    class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+        final TextView textView;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            textView = (TextView)itemView.findViewById(android.R.id.text1);
+            itemView.setOnClickListener(this);
+        }
+
+        @Override
+        public void onClick(View view) {
+            int position = getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                listener.onItemClick(position, items.get(position));
+            }
+        }
+    }
+
+    /**
+     * Computes the changes between two lists of items, comparing the items by equality.
+     */
+    static class ItemsDiff extends DiffUtil.Callback {
+        private final List<String> oldItems;
+        private final List<String> newItems;
+
+        ItemsDiff(List<String> oldItems, List<String> newItems) {
+            this.oldItems = oldItems;
+            this.newItems = newItems;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldItems.get(oldItemPosition).equals(newItems.get(newItemPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return true;
+        }
+    }
+
+    SelectionListAdapter(OnItemClickListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the items currently displayed, which must not be modified.
+     *
+     * @return  the displayed items
+     */
+    List<String> getItems() {
+        return items;
+    }
+
+    /**
+     * Replaces the displayed items.
+     *
+     * @param newItems  the items to display, which must not be modified afterwards
+     * @param diff      the changes from the current items to the new ones, or null to redisplay the whole list
+     */
+    void setItems(List<String> newItems, DiffUtil.DiffResult diff) {
+        items = newItems;
+        if (diff != null) {
+            diff.dispatchUpdatesTo(this);
+        } else {
+            notifyDataSetChanged();
+        }
+    }
+
+    /**
+     * Displays more items after the current ones.
+     *
+     * @param newItems  the current items followed by the items to add, which must not be modified afterwards
+     */
+    void appendItems(List<String> newItems) {
+        int start = items.size();
+        items = newItems;
+        notifyItemRangeInserted(start, newItems.size() - start);
+    }
+
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(android.R.layout.simple_list_item_1, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position) {
+        holder.textView.setText(items.get(position));
+    }
+
+    @Override
+    public int getItemCount() {
+        return items.size();
+    }
+}
@@ -185,13 +185,13 @@ public class TextViewController extends LabelTextController {
         llp.setMargins(10, 0, 0, 0);
         textView.setLayoutParams(llp);
 
-        if (submittedValue != null && !submittedValue.isEmpty()) {
+        if (!wasViewCreatedBefore() && submittedValue != null && !submittedValue.isEmpty()) {
             textView.setText(submittedValue);
-            getModel().setValue(getName(),submittedValue);
+            setModelValue(submittedValue);
         }
         refresh(textView);
 
-        if (submittedValue != null && !submittedValue.isEmpty()) {
+        if (!wasViewCreatedBefore() && submittedValue != null && !submittedValue.isEmpty()) {
             textView.setText(submittedValue);
         }
 
@@ -199,7 +199,7 @@ public class TextViewController extends LabelTextController {
     }
 
     private void refresh(TextView textView) {
-        Object value = getModel().getValue(getName());
+        Object value = getModelValue();
         String valueStr = value != null ? value.toString() : "";
         if (!valueStr.equals(textView.getText().toString()))
             textView.setText(valueStr);
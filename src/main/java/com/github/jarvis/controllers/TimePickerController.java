@@ -82,6 +82,11 @@ public class TimePickerController extends LabeledFieldController {
         this(context, name, labelText, placeHolder, submittedValue, false, new SimpleDateFormat("hh:mm a", Locale.getDefault()), false, validationListener);
     }
 
+    @Override
+    protected Class<?> getValueType() {
+        return Date.class;
+    }
+
     @Override
     protected View createFieldView() {
         final EditText editText = new EditText(getContext());
@@ -108,12 +113,14 @@ public class TimePickerController extends LabeledFieldController {
             }
         });
 
-        editText.setText(submittedValue);
+        if (!wasViewCreatedBefore()) {
+            editText.setText(submittedValue);
+        }
 
-        if (submittedValue != null && !submittedValue.isEmpty()) {
+        if (!wasViewCreatedBefore() && submittedValue != null && !submittedValue.isEmpty()) {
             try {
                 Date value = displayFormat.parse(submittedValue);
-                getModel().setValue(getName(), value);
+                setModelValue(value);
             } catch (ParseException e) {
                 e.printStackTrace();
             }
@@ -126,7 +133,7 @@ public class TimePickerController extends LabeledFieldController {
     private void showTimePickerDialog(Context context, final EditText editText) {
 // don't show dialog again if it's already being shown
         if (timePickerDialog == null) {
-            Date date = (Date) getModel().getValue(getName());
+            Date date = (Date) getModelValue();
             if (date == null) {
                 date = new Date();
             }
@@ -141,7 +148,7 @@ public class TimePickerController extends LabeledFieldController {
                     calendar.setTimeZone(timeZone);
                     calendar.set(Calendar.HOUR_OF_DAY, hourOfDay);
                     calendar.set(Calendar.MINUTE, minute);
-                    getModel().setValue(getName(), calendar.getTime());
+                    setModelValue(calendar.getTime());
                     editText.setText(displayFormat.format(calendar.getTime()));
                     validationListener.onValidateInput();
                 }
@@ -163,7 +170,7 @@ public class TimePickerController extends LabeledFieldController {
     }
 
     private void refresh(EditText editText) {
-        Date value = (Date) getModel().getValue(getName());
+        Date value = (Date) getModelValue();
         editText.setText(value != null ? displayFormat.format(value) : "");
     }
 
@@ -0,0 +1,276 @@
+package com.github.jarvis.controllers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable index of the trigrams of the items of a {@link SelectionIndex}, answering fuzzy queries: items
+ * containing the query are found anywhere in their text, and items sharing enough trigrams with it are found despite
+ * typos. Each trigram maps to the sorted positions of the items containing it, so a query only visits the items
+ * sharing at least one trigram with it. Only the {@link #MAX_RESULTS} best matches of a query are returned, which
+ * bounds the work of ranking them: candidates that cannot rank among the best matches found so far are skipped before
+ * their text is searched. Building the index takes a while for large lists, so it should be done in the background.
+ */
+final class TrigramIndex {
+    /**
+     * The maximum number of items a query returns.
+     */
+    static final int MAX_RESULTS = 1000;
+
+    // the share of the trigrams of a query an item must contain to match it despite typos
+    private static final float MIN_SIMILARITY = 0.5f;
+    private static final int MAX_RANK = 0xFFFF;
+
+    // the lowercased items, in their original order
+    private final String[] keys;
+    // the id of each trigram, encoded by trigramOf
+    private final Map<Long,Integer> trigramIds = new HashMap<>();
+    // the positions of the items containing trigram i are postings[postingStarts[i]] to postings[postingStarts[i + 1]]
+    private final int[] postingStarts;
+    private final int[] postings;
+    // the number of distinct trigrams of each item
+    private final int[] trigramCounts;
+    // the number of trigrams each item shares with the current query, reused and cleared after every query
+    private final int[] shared;
+
+    /**
+     * Builds the index of the specified items.
+     *
+     * @param keys  the lowercased items, in their original order, which must not be modified afterwards
+     */
+    TrigramIndex(String[] keys) {
+        this.keys = keys;
+        trigramCounts = new int[keys.length];
+        shared = new int[keys.length];
+
+        // first counts the items containing each trigram, then fills the postings in the same order
+        int[] itemCounts = new int[64];
+        int[] lastItems = new int[64];
+        for (int item = 0; item < keys.length; item++) {
+            String key = keys[item];
+            for (int i = 0; i + 3 <= key.length(); i++) {
+                Long trigram = trigramOf(key, i);
+                Integer id = trigramIds.get(trigram);
+                if (id == null) {
+                    id = trigramIds.size();
+                    trigramIds.put(trigram, id);
+                    if (id == itemCounts.length) {
+                        itemCounts = Arrays.copyOf(itemCounts, id * 2);
+                        lastItems = Arrays.copyOf(lastItems, id * 2);
+                    }
+                    lastItems[id] = -1;
+                }
+                if (lastItems[id] != item) {
+                    lastItems[id] = item;
+                    itemCounts[id]++;
+                    trigramCounts[item]++;
+                }
+            }
+        }
+
+        int trigramCount = trigramIds.size();
+        postingStarts = new int[trigramCount + 1];
+        for (int id = 0; id < trigramCount; id++) {
+            postingStarts[id + 1] = postingStarts[id] + itemCounts[id];
+        }
+        postings = new int[postingStarts[trigramCount]];
+        int[] ends = Arrays.copyOf(postingStarts, trigramCount);
+        Arrays.fill(lastItems, -1);
+        for (int item = 0; item < keys.length; item++) {
+            String key = keys[item];
+            for (int i = 0; i + 3 <= key.length(); i++) {
+                int id = trigramIds.get(trigramOf(key, i));
+                if (lastItems[id] != item) {
+                    lastItems[id] = item;
+                    postings[ends[id]++] = item;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the positions of the {@link #MAX_RESULTS} items best matching the specified query, best matches first:
+     * the items starting with the query, then those with a word starting with it, then those containing it, then those
+     * only sharing enough trigrams with it. Within each group, the items most similar to the query come first, then
+     * the items in their original order.
+     *
+     * @param query the query, lowercased with {@link SelectionIndex#normalize(String)}, not empty
+     * @return      the positions of the matching items
+     */
+    synchronized int[] find(String query) {
+        if (query.length() < 3) {
+            // too short to have trigrams of its own, and fast enough to search directly
+            return findContaining(query);
+        }
+
+        int[] queryTrigrams = queryTrigramIds(query);
+        int[] candidates = new int[16];
+        int candidateCount = 0;
+        for (int id : queryTrigrams) {
+            for (int i = postingStarts[id]; i < postingStarts[id + 1]; i++) {
+                int item = postings[i];
+                if (shared[item]++ == 0) {
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    }
+                    candidates[candidateCount++] = item;
+                }
+            }
+        }
+
+        int queryTrigramCount = query.length() - 2;
+        int minShared = Math.max(1, (int)Math.ceil(queryTrigramCount * MIN_SIMILARITY));
+        // an item can only contain the query if it contains all its trigrams, and the index knows them all
+        boolean containable = queryTrigrams.length == distinctTrigramCount(query);
+        long[] ranked = new long[Math.min(MAX_RESULTS, candidateCount)];
+        int matchCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int item = candidates[i];
+            boolean mayContain = containable && shared[item] == queryTrigrams.length;
+            if (!mayContain && shared[item] < minShared) {
+                continue;
+            }
+            // the Dice coefficient of the trigrams of the query and the item
+            float similarity = 2f * shared[item] / (queryTrigramCount + trigramCounts[item]);
+            if (matchCount == ranked.length && rankOf(mayContain ? 0 : 3, similarity, item) >= ranked[0]) {
+                // cannot rank better than the worst of the best matches, even in the best group it may be in
+                continue;
+            }
+            int group = mayContain ? groupOf(keys[item], query) : 3;
+            matchCount = offer(ranked, matchCount, rankOf(group, similarity, item));
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            shared[candidates[i]] = 0;
+        }
+        return positionsOf(ranked, matchCount);
+    }
+
+    private int[] findContaining(String query) {
+        long[] ranked = new long[Math.min(MAX_RESULTS, keys.length)];
+        int matchCount = 0;
+        for (int item = 0; item < keys.length; item++) {
+            String key = keys[item];
+            if (key.length() < query.length()) {
+                continue;
+            }
+            float similarity = (float)query.length() / key.length();
+            if (matchCount == ranked.length && rankOf(0, similarity, item) >= ranked[0]) {
+                continue;
+            }
+            int group = groupOf(key, query);
+            if (group != 3) {
+                matchCount = offer(ranked, matchCount, rankOf(group, similarity, item));
+            }
+        }
+        return positionsOf(ranked, matchCount);
+    }
+
+    private static int distinctTrigramCount(String query) {
+        int count = 0;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            if (query.indexOf(query.substring(i, i + 3)) == i) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the ids of the distinct trigrams of the query that at least one item contains.
+     */
+    private int[] queryTrigramIds(String query) {
+        int[] ids = new int[query.length() - 2];
+        int count = 0;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            Integer id = trigramIds.get(trigramOf(query, i));
+            if (id == null) {
+                continue;
+            }
+            boolean seen = false;
+            for (int j = 0; j < count && !seen; j++) {
+                seen = ids[j] == id;
+            }
+            if (!seen) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Returns 0 if the key starts with the query, 1 if one of its words does, 2 if it contains the query elsewhere,
+     * and 3 if it does not contain it.
+     */
+    private static int groupOf(String key, String query) {
+        int index = key.indexOf(query);
+        if (index < 0) {
+            return 3;
+        }
+        if (index == 0) {
+            return 0;
+        }
+        do {
+            if (!Character.isLetterOrDigit(key.charAt(index - 1))) {
+                return 1;
+            }
+            index = key.indexOf(query, index + 1);
+        } while (index > 0);
+        return 2;
+    }
+
+    /**
+     * Encodes the rank of an item so that sorting the ranks in ascending order sorts the items from the best match
+     * to the worst.
+     */
+    private static long rankOf(int group, float similarity, int item) {
+        long dissimilarity = MAX_RANK - Math.round(Math.min(similarity, 1f) * MAX_RANK);
+        return (long)group << 56 | dissimilarity << 40 | item;
+    }
+
+    /**
+     * Adds a rank to the max-heap of the {@code ranked.length} best ranks found so far, replacing the worst of them if
+     * the heap is full and the rank is better.
+     *
+     * @return  the new number of ranks in the heap
+     */
+    private static int offer(long[] ranked, int count, long rank) {
+        int i;
+        if (count < ranked.length) {
+            i = count++;
+            while (i > 0 && ranked[(i - 1) >>> 1] < rank) {
+                ranked[i] = ranked[(i - 1) >>> 1];
+                i = (i - 1) >>> 1;
+            }
+        } else if (rank < ranked[0]) {
+            i = 0;
+            for (int child = 1; child < count; child = 2 * i + 1) {
+                if (child + 1 < count && ranked[child + 1] > ranked[child]) {
+                    child++;
+                }
+                if (ranked[child] <= rank) {
+                    break;
+                }
+                ranked[i] = ranked[child];
+                i = child;
+            }
+        } else {
+            return count;
+        }
+        ranked[i] = rank;
+        return count;
+    }
+
+    private static int[] positionsOf(long[] ranked, int count) {
+        Arrays.sort(ranked, 0, count);
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = (int)(ranked[i] & 0xFFFFFFFFFFL);
+        }
+        return positions;
+    }
+
+    private static Long trigramOf(String text, int index) {
+        return (long)text.charAt(index) << 32 | (long)text.charAt(index + 1) << 16 | text.charAt(index + 2);
+    }
+}
@@ -0,0 +1,261 @@
+package com.github.jarvis.validations;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Base class of the validators whose check is too slow for the UI thread, such as a lookup on a server. The check runs
+ * on an executor; until it completes, {@link #validate} reports a {@link PendingValidation} error, and once it
+ * completes the registered {@link ValidationListener}s are notified on the UI thread so the form can be validated
+ * again, for example by a {@link ValidationScheduler}.
+ * <p/>
+ * Results are cached per value for a limited time, so going back to a previous value does not check it again. Each
+ * field has at most one check running: when the value of a field changes before its check completes, the check is
+ * cancelled and the new value is checked instead. A check that throws is treated as passing until the value of the
+ * field changes, so an unavailable service does not block the form; override {@link #onCheckFailed(Object, Exception)}
+ * to report it. Failed and cancelled checks are not cached, so the value is checked again the next time it is entered.
+ * <p/>
+ * Empty or null values are valid: whether a value is required is checked by {@link RequiredFieldValidator}.
+ */
+public abstract class AsyncInputValidator implements CostAwareValidator {
+    /**
+     * The default time a result is cached, in milliseconds.
+     */
+    public static final long DEFAULT_CACHE_TTL_MS = 5 * 60 * 1000;
+
+    private static final int MAX_CACHED_RESULTS = 128;
+
+    private final ExecutorService executor;
+    private final long cacheTtlMillis;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<ValidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    // guarded by this
+    private final Map<Object,CachedResult> cache = new LinkedHashMap<Object,CachedResult>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object,CachedResult> eldest) {
+            return size() > MAX_CACHED_RESULTS;
+        }
+    };
+    // guarded by this, the running check of each field
+    private final Map<String,Check> checks = new HashMap<>();
+
+    private static final class CachedResult {
+        final boolean valid;
+        final long expiresAt;
+
+        CachedResult(boolean valid, long expiresAt) {
+            this.valid = valid;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Check {
+        final Object value;
+        Future<?> future;
+        // guarded by the validator, whether the check threw, in which case the value passes until it changes
+        boolean failed;
+
+        Check(Object value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Creates a validator running its checks on the specified executor and caching results for
+     * {@link #DEFAULT_CACHE_TTL_MS}.
+     *
+     * @param executor  the executor running the checks
+     */
+    protected AsyncInputValidator(ExecutorService executor) {
+        this(executor, DEFAULT_CACHE_TTL_MS);
+    }
+
+    /**
+     * Creates a validator running its checks on the specified executor.
+     *
+     * @param executor          the executor running the checks
+     * @param cacheTtlMillis    the time a result is cached, in milliseconds
+     */
+    protected AsyncInputValidator(ExecutorService executor, long cacheTtlMillis) {
+        this.executor = executor;
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    /**
+     * Checks the specified value. Called on the executor, so it can block.
+     *
+     * @param value the non-empty value to check
+     * @return      true if the value is valid, otherwise false
+     * @throws Exception    if the value could not be checked
+     */
+    protected abstract boolean isValid(Object value) throws Exception;
+
+    /**
+     * Creates the error reported for an invalid value.
+     *
+     * @param fieldName     the name of the field
+     * @param fieldLabel    the label of the field
+     * @return              the validation error
+     */
+    protected abstract ValidationError createError(String fieldName, String fieldLabel);
+
+    /**
+     * Called on the executor when checking a value throws. Does nothing by default.
+     *
+     * @param value     the value that could not be checked
+     * @param exception the exception thrown by {@link #isValid(Object)}
+     */
+    protected void onCheckFailed(Object value, Exception exception) {
+    }
+
+    /**
+     * Registers a listener notified on the UI thread whenever a check completes.
+     *
+     * @param listener  the listener to add
+     */
+    public void addValidationListener(ValidationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeValidationListener(ValidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public ValidationError validate(Object value, String fieldName, String fieldLabel) {
+        if (value == null || value.toString().isEmpty()) {
+            cancelCheck(fieldName);
+            return null;
+        }
+
+        synchronized (this) {
+            CachedResult result = cache.get(value);
+            if (result != null && result.expiresAt > SystemClock.elapsedRealtime()) {
+                cancelCheck(fieldName);
+                return result.valid ? null : createError(fieldName, fieldLabel);
+            }
+
+            Check check = checks.get(fieldName);
+            if (check != null && check.value.equals(value)) {
+                if (check.failed) {
+                    return null;
+                }
+            } else {
+                cancelCheck(fieldName);
+                startCheck(fieldName, value);
+            }
+        }
+        return new PendingValidation(fieldName, fieldLabel);
+    }
+
+    /**
+     * Indicates whether the value of the specified field is being checked.
+     *
+     * @param fieldName the name of the field
+     * @return          true if a check is running for the field, otherwise false
+     */
+    public synchronized boolean isPending(String fieldName) {
+        Check check = checks.get(fieldName);
+        return check != null && !check.failed;
+    }
+
+    /**
+     * Cancels the running checks and forgets the cached results.
+     */
+    public synchronized void reset() {
+        for (Check check : checks.values()) {
+            check.future.cancel(true);
+        }
+        checks.clear();
+        cache.clear();
+    }
+
+    @Override
+    public int getCost() {
+        return COST_LOOKUP;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+
+    private synchronized void cancelCheck(String fieldName) {
+        Check check = checks.remove(fieldName);
+        if (check != null) {
+            check.future.cancel(true);
+        }
+    }
+
+    private void startCheck(final String fieldName, final Object value) {
+        final Check check = new Check(value);
+        checks.put(fieldName, check);
+        // the check cannot complete before its future is set, since completing it requires the lock held here
+        check.future = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                boolean valid;
+                try {
+                    valid = isValid(value);
+                } catch (Exception e) {
+                    // an exception from a check superseded by a newer value, such as the interruption of its
+                    // cancellation, is ignored; any exception from the current check is a failure
+                    if (isCurrent(fieldName, check)) {
+                        onCheckFailed(value, e);
+                        markFailed(fieldName, check);
+                    }
+                    return;
+                }
+                onCheckCompleted(fieldName, check, valid);
+            }
+        });
+    }
+
+    private synchronized boolean isCurrent(String fieldName, Check check) {
+        return checks.get(fieldName) == check;
+    }
+
+    private void onCheckCompleted(String fieldName, Check check, boolean valid) {
+        synchronized (this) {
+            if (checks.get(fieldName) != check) {
+                // cancelled because the value changed, the result may have been cut short
+                return;
+            }
+            checks.remove(fieldName);
+            cache.put(check.value, new CachedResult(valid, SystemClock.elapsedRealtime() + cacheTtlMillis));
+        }
+        notifyListeners();
+    }
+
+    private void markFailed(String fieldName, Check check) {
+        synchronized (this) {
+            if (checks.get(fieldName) != check) {
+                return;
+            }
+            // kept so that validating the same value again does not retry the check in a loop
+            check.failed = true;
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                for (ValidationListener listener : listeners) {
+                    listener.onValidateInput();
+                }
+            }
+        });
+    }
+}
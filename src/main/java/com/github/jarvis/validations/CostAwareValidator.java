@@ -0,0 +1,40 @@
+package com.github.jarvis.validations;
+
+/**
+ * An {@link InputValidator} that tells how expensive it is to run, so that the validators of a field can run from the
+ * cheapest to the most expensive (see {@link ValidatorChain}), and whether an error it reports makes the remaining
+ * validators of the field pointless. Validators that do not implement this interface have a cost of
+ * {@link #COST_DEFAULT} and are not blocking.
+ */
+public interface CostAwareValidator extends InputValidator {
+    /**
+     * The cost of checks on the presence or the type of the value, such as required fields.
+     */
+    int COST_STRUCTURAL = 100;
+    /**
+     * The cost of checks scanning the value, such as regular expressions.
+     */
+    int COST_PATTERN = 200;
+    /**
+     * The cost of validators that do not declare any.
+     */
+    int COST_DEFAULT = 300;
+    /**
+     * The cost of checks looking the value up, in a collection, a database or on a server.
+     */
+    int COST_LOOKUP = 400;
+
+    /**
+     * Returns the cost class of this validator. Validators with a lower cost run first.
+     *
+     * @return  the cost of this validator, such as {@link #COST_STRUCTURAL} or {@link #COST_PATTERN}
+     */
+    int getCost();
+
+    /**
+     * Indicates whether the remaining validators of a field must be skipped when this validator reports an error.
+     *
+     * @return  true if an error of this validator stops the validation of the field, otherwise false
+     */
+    boolean isBlocking();
+}
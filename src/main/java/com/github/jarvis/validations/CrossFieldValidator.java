@@ -0,0 +1,26 @@
+package com.github.jarvis.validations;
+
+import com.github.jarvis.FormModel;
+
+/**
+ * Checks a rule involving several fields of a form, such as an end date that must follow a start date. The validator
+ * declares the fields it reads so that it only runs again when one of them changes, see
+ * {@link com.github.jarvis.FormController#addCrossFieldValidator(CrossFieldValidator)}.
+ */
+public interface CrossFieldValidator {
+    /**
+     * Returns the names of the fields whose values this validator reads. The names must not change once the
+     * validator is added to a form.
+     *
+     * @return  the names of the fields this validator depends on
+     */
+    String[] getDependencies();
+
+    /**
+     * Checks the values of the fields this validator depends on.
+     *
+     * @param model the model of the form, to read the values from
+     * @return      the error to report, attached to the field it names, or null if the values are valid
+     */
+    ValidationError validate(FormModel model);
+}
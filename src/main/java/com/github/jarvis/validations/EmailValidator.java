@@ -0,0 +1,63 @@
+package com.github.jarvis.validations;
+
+/**
+ * Checks that a value looks like an email address: a local part, an {@code @} and a domain name ending with a top
+ * level domain of at least two letters.
+ */
+public class EmailValidator extends PatternValidator {
+    private static final String REGEX = "[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}";
+
+    public EmailValidator() {
+        super(REGEX);
+    }
+
+    /**
+     * Scans the text the same way as the regular expression of this validator. The top level domain cannot contain
+     * a dot, so it is whatever follows the last dot of the domain.
+     */
+    @Override
+    protected boolean matches(String text) {
+        int at = text.indexOf('@');
+        if (at <= 0 || at != text.lastIndexOf('@')) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            char c = text.charAt(i);
+            if (!isAsciiLetter(c) && !isAsciiDigit(c) && c != '.' && c != '_' && c != '%' && c != '+' && c != '-') {
+                return false;
+            }
+        }
+
+        int lastDot = text.lastIndexOf('.');
+        if (lastDot <= at + 1 || text.length() - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = at + 1; i < lastDot; i++) {
+            char c = text.charAt(i);
+            if (!isAsciiLetter(c) && !isAsciiDigit(c) && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        for (int i = lastDot + 1; i < text.length(); i++) {
+            if (!isAsciiLetter(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected ValidationError createError(String fieldName, String fieldLabel) {
+        return new InvalidEmail(fieldName, fieldLabel);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) || o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,442 @@
+package com.github.jarvis.validations;
+
+import com.github.jarvis.FormModel;
+import com.github.jarvis.controllers.LabeledFieldController;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the validation result of each field of a form and only validates again the fields that were marked dirty
+ * since their last validation, typically because their value changed. It also keeps a running count of the errors of
+ * the form, so checking whether the whole form is valid does not require walking every field. Cross-field validators
+ * are cached the same way: a reverse dependency graph maps each field name to the validators reading it, so a change
+ * only runs again the validators that depend on the changed field.
+ * <p>
+ * A field is only marked dirty when it is told so, so values must be replaced in the model rather than mutated in
+ * place for a change to be noticed; a value changed in place must be reported with
+ * {@link com.github.jarvis.FormController#invalidateValidation(String)}. The validator is thread-safe, so the form can
+ * be validated in the background, see {@link ValidationScheduler}.
+ * <p>
+ * Results containing a {@link PendingValidation}, reported while an {@link AsyncInputValidator} is still checking a
+ * value, are not cached: the entry stays dirty and is validated again every time results are requested, and its
+ * errors still count, so the form is not valid until the check completes.
+ * <p>
+ * Results computed elsewhere, for example by {@link com.github.jarvis.FormValidationTask} in the background, can be
+ * stored with {@link #putErrors}, provided the field was not marked dirty again in the meantime, which
+ * {@link #getGeneration} tells.
+ */
+public class IncrementalFormValidator {
+    private final Map<LabeledFieldController,FieldState> states = new IdentityHashMap<>();
+    private final Map<String,FieldState> statesByName = new HashMap<>();
+    private final List<RuleState> rules = new ArrayList<>();
+    private final Map<String,List<RuleState>> rulesByDependency = new HashMap<>();
+    private final List<Entry> dirtyStates = new ArrayList<>();
+    // reused for every validation so that valid fields do not allocate
+    private final List<ValidationError> scratchErrors = new ArrayList<>();
+    private int cleanErrorCount;
+    // the number of errors of the entries whose result is pending, which stay dirty
+    private int pendingErrorCount;
+    private FormModel model;
+
+    private abstract static class Entry {
+        List<ValidationError> errors = Collections.emptyList();
+        boolean dirty;
+        // whether the entry is in dirtyStates, which an entry validated on its own may still be
+        boolean queued;
+        boolean tracked = true;
+        // whether the last result contains a PendingValidation, in which case the entry is still dirty
+        boolean pending;
+        // incremented every time the entry is marked dirty, so results computed before can be told apart
+        int generation;
+
+        abstract void collectErrors(FormModel model, List<ValidationError> out);
+    }
+
+    private static final class FieldState extends Entry {
+        final LabeledFieldController field;
+        // other fields bound to the same name, which share the same model value
+        FieldState sameName;
+
+        FieldState(LabeledFieldController field) {
+            this.field = field;
+        }
+
+        @Override
+        void collectErrors(FormModel model, List<ValidationError> out) {
+            field.validateInput(out);
+        }
+    }
+
+    private static final class RuleState extends Entry {
+        final CrossFieldValidator validator;
+        final String[] dependencies;
+
+        RuleState(CrossFieldValidator validator) {
+            this.validator = validator;
+            this.dependencies = validator.getDependencies().clone();
+        }
+
+        @Override
+        void collectErrors(FormModel model, List<ValidationError> out) {
+            ValidationError error = validator.validate(model);
+            if (error != null) {
+                out.add(error);
+            }
+        }
+    }
+
+    /**
+     * Sets the model cross-field validators read the values from, and marks everything as needing validation.
+     *
+     * @param model the model of the form
+     */
+    public synchronized void setModel(FormModel model) {
+        this.model = model;
+        markAllDirty();
+    }
+
+    /**
+     * Starts caching the result of the specified cross-field validator. It runs the next time results are requested,
+     * and again whenever one of its dependencies is marked dirty.
+     *
+     * @param validator the cross-field validator to add
+     */
+    public synchronized void addCrossFieldValidator(CrossFieldValidator validator) {
+        RuleState rule = new RuleState(validator);
+        rules.add(rule);
+        for (String dependency : rule.dependencies) {
+            List<RuleState> dependents = rulesByDependency.get(dependency);
+            if (dependents == null) {
+                dependents = new ArrayList<>(1);
+                rulesByDependency.put(dependency, dependents);
+            }
+            if (!dependents.contains(rule)) {
+                dependents.add(rule);
+            }
+        }
+        rule.dirty = true;
+        enqueue(rule);
+    }
+
+    /**
+     * Removes the specified cross-field validator and its errors from the error count.
+     *
+     * @param validator the cross-field validator to remove
+     */
+    public synchronized void removeCrossFieldValidator(CrossFieldValidator validator) {
+        for (int i = 0; i < rules.size(); i++) {
+            RuleState rule = rules.get(i);
+            if (rule.validator != validator) {
+                continue;
+            }
+
+            rules.remove(i);
+            rule.tracked = false;
+            forget(rule);
+            for (String dependency : rule.dependencies) {
+                List<RuleState> dependents = rulesByDependency.get(dependency);
+                if (dependents != null && dependents.remove(rule) && dependents.isEmpty()) {
+                    rulesByDependency.remove(dependency);
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * Starts caching the validation result of the specified field. The field is validated the next time results are
+     * requested.
+     *
+     * @param field the field to track
+     */
+    public synchronized void track(LabeledFieldController field) {
+        if (states.containsKey(field)) {
+            return;
+        }
+
+        FieldState state = new FieldState(field);
+        states.put(field, state);
+        state.sameName = statesByName.put(field.getName(), state);
+        state.dirty = true;
+        enqueue(state);
+    }
+
+    /**
+     * Stops caching the validation result of the specified field and removes its errors from the error count.
+     *
+     * @param field the field to stop tracking
+     */
+    public synchronized void untrack(LabeledFieldController field) {
+        FieldState state = states.remove(field);
+        if (state == null) {
+            return;
+        }
+
+        state.tracked = false;
+        forget(state);
+
+        // unlink the field from the fields sharing its name
+        FieldState remaining = null;
+        FieldState last = null;
+        FieldState next;
+        for (FieldState s = statesByName.remove(field.getName()); s != null; s = next) {
+            next = s.sameName;
+            s.sameName = null;
+            if (s == state) {
+                continue;
+            }
+            if (remaining == null) {
+                remaining = s;
+            } else {
+                last.sameName = s;
+            }
+            last = s;
+        }
+        if (remaining != null) {
+            statesByName.put(field.getName(), remaining);
+        }
+    }
+
+    /**
+     * Marks the fields with the specified name, and the cross-field validators reading it, as needing validation,
+     * typically because the value of the field changed.
+     *
+     * @param fieldName the name of the fields
+     */
+    public synchronized void markDirty(String fieldName) {
+        for (FieldState state = statesByName.get(fieldName); state != null; state = state.sameName) {
+            markDirty(state);
+        }
+        List<RuleState> dependents = rulesByDependency.get(fieldName);
+        if (dependents != null) {
+            for (int i = 0; i < dependents.size(); i++) {
+                markDirty(dependents.get(i));
+            }
+        }
+    }
+
+    /**
+     * Marks the specified field as needing validation, typically because its validators changed.
+     *
+     * @param field the field
+     */
+    public synchronized void markDirty(LabeledFieldController field) {
+        FieldState state = states.get(field);
+        if (state != null) {
+            markDirty(state);
+        }
+    }
+
+    /**
+     * Marks every field and cross-field validator as needing validation, for example because the model of the form
+     * was replaced.
+     */
+    public synchronized void markAllDirty() {
+        for (FieldState state : states.values()) {
+            markDirty(state);
+        }
+        for (RuleState rule : rules) {
+            markDirty(rule);
+        }
+    }
+
+    /**
+     * Returns the validation errors of the specified field, validating it first if it is dirty.
+     *
+     * @param field the field
+     * @return      the validation errors of the field; the returned list must not be modified
+     */
+    public synchronized List<ValidationError> getErrors(LabeledFieldController field) {
+        FieldState state = states.get(field);
+        if (state == null) {
+            return field.validateInput();
+        }
+        if (state.dirty) {
+            validate(state);
+        }
+        return state.errors;
+    }
+
+    /**
+     * Returns the validation errors of the specified field if they are known, without validating it.
+     *
+     * @param field the field
+     * @return      the validation errors of the field, which must not be modified, or null if the field is dirty or
+     *              not tracked
+     */
+    public synchronized List<ValidationError> getCachedErrors(LabeledFieldController field) {
+        FieldState state = states.get(field);
+        return state == null || state.dirty ? null : state.errors;
+    }
+
+    /**
+     * Returns the number of times the specified field was marked dirty, to pass to {@link #putErrors} along with the
+     * errors of the value it had at that time.
+     *
+     * @param field the field
+     * @return      the generation of the field, or -1 if the field is not tracked
+     */
+    public synchronized int getGeneration(LabeledFieldController field) {
+        FieldState state = states.get(field);
+        return state != null ? state.generation : -1;
+    }
+
+    /**
+     * Stores the validation errors of the specified field computed elsewhere, unless the field was marked dirty again
+     * since {@link #getGeneration} returned {@code generation}, or its result is not known yet because the errors
+     * contain a {@link PendingValidation}.
+     *
+     * @param field         the field
+     * @param generation    the generation of the field when its value was read
+     * @param errors        the validation errors of that value; the list must not be modified afterwards
+     */
+    public synchronized void putErrors(LabeledFieldController field, int generation, List<ValidationError> errors) {
+        FieldState state = states.get(field);
+        if (state == null || !state.dirty || state.generation != generation) {
+            return;
+        }
+        for (int i = 0; i < errors.size(); i++) {
+            if (errors.get(i) instanceof PendingValidation) {
+                return;
+            }
+        }
+
+        if (state.pending) {
+            pendingErrorCount -= state.errors.size();
+            state.pending = false;
+        }
+        // the entry may stay queued, it is dropped from the queue once found clean
+        state.errors = errors.isEmpty() ? Collections.<ValidationError>emptyList() : errors;
+        state.dirty = false;
+        cleanErrorCount += state.errors.size();
+    }
+
+    /**
+     * Returns the errors of the cross-field validators, running the dirty ones first.
+     *
+     * @return  the errors of the cross-field validators, in the order the validators were added
+     */
+    public synchronized List<ValidationError> getCrossFieldErrors() {
+        List<ValidationError> errors = null;
+        for (RuleState rule : rules) {
+            if (rule.dirty) {
+                validate(rule);
+            }
+            if (!rule.errors.isEmpty()) {
+                if (errors == null) {
+                    errors = new ArrayList<>();
+                }
+                errors.addAll(rule.errors);
+            }
+        }
+        return errors != null ? errors : Collections.<ValidationError>emptyList();
+    }
+
+    /**
+     * Returns the number of validation errors of all the tracked fields and cross-field validators, validating the
+     * dirty ones first.
+     *
+     * @return the number of validation errors
+     */
+    public synchronized int getErrorCount() {
+        validateDirty(false);
+        return cleanErrorCount + pendingErrorCount;
+    }
+
+    /**
+     * Indicates whether all the tracked fields and cross-field validators are valid. Stops as soon as an error is
+     * known: dirty entries are only validated while no error was found, and the others stay dirty.
+     *
+     * @return true if there is no validation error, otherwise false
+     */
+    public synchronized boolean isValid() {
+        validateDirty(true);
+        return cleanErrorCount + pendingErrorCount == 0;
+    }
+
+    private void markDirty(Entry state) {
+        state.generation++;
+        if (!state.dirty) {
+            state.dirty = true;
+            cleanErrorCount -= state.errors.size();
+            enqueue(state);
+        }
+    }
+
+    private void enqueue(Entry state) {
+        if (!state.queued) {
+            state.queued = true;
+            dirtyStates.add(state);
+        }
+    }
+
+    private void forget(Entry state) {
+        if (state.pending) {
+            pendingErrorCount -= state.errors.size();
+        } else if (!state.dirty) {
+            cleanErrorCount -= state.errors.size();
+        }
+    }
+
+    private void validate(Entry state) {
+        if (state.pending) {
+            pendingErrorCount -= state.errors.size();
+        }
+
+        scratchErrors.clear();
+        state.collectErrors(model, scratchErrors);
+        state.errors = scratchErrors.isEmpty()
+                ? Collections.<ValidationError>emptyList()
+                : new ArrayList<>(scratchErrors);
+        scratchErrors.clear();
+
+        state.pending = false;
+        for (int i = 0; i < state.errors.size(); i++) {
+            if (state.errors.get(i) instanceof PendingValidation) {
+                state.pending = true;
+                break;
+            }
+        }
+        if (state.pending) {
+            pendingErrorCount += state.errors.size();
+            enqueue(state);
+        } else {
+            state.dirty = false;
+            cleanErrorCount += state.errors.size();
+        }
+    }
+
+    /**
+     * Validates the queued dirty entries, or only until an error is known if {@code failFast} is true. Entries whose
+     * result is pending stay queued.
+     */
+    private void validateDirty(boolean failFast) {
+        // pending results may have completed since they were last checked, so they must not fail the form early
+        for (int i = 0; i < dirtyStates.size(); i++) {
+            Entry state = dirtyStates.get(i);
+            if (state.tracked && state.pending) {
+                validate(state);
+            }
+        }
+
+        int kept = 0;
+        int i = 0;
+        while (i < dirtyStates.size() && !(failFast && cleanErrorCount + pendingErrorCount > 0)) {
+            Entry state = dirtyStates.get(i++);
+            if (state.tracked && state.dirty && !state.pending) {
+                validate(state);
+            }
+            if (state.tracked && state.pending) {
+                dirtyStates.set(kept++, state);
+            } else {
+                state.queued = false;
+            }
+        }
+        dirtyStates.subList(kept, i).clear();
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.jarvis.validations;
+
+import android.content.res.Resources;
+
+import com.github.jarvis.dynamicformbuilder.R;
+
+import java.util.Arrays;
+
+/**
+ * Represents a validation error where the input is too short or too long.
+ */
+public class InvalidLength extends ValidationError {
+    private final int minLength;
+    private final int maxLength;
+
+    /**
+     * Creates a new instance with the specified field name.
+     *
+     * @param fieldName     the field name
+     * @param fieldLabel    the field label
+     * @param minLength     the smallest valid number of characters
+     * @param maxLength     the largest valid number of characters
+     */
+    public InvalidLength(String fieldName, String fieldLabel, int minLength, int maxLength) {
+        super(fieldName, fieldLabel);
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    @Override
+    public String getMessage(Resources resources) {
+        return String.format(resources.getString(R.string.invalid_length_error_msg), getFieldLabel(), minLength,
+                maxLength);
+    }
+
+    @Override
+    protected Object getMessageKey() {
+        return getFieldLabel() == null ? null : Arrays.asList(getFieldLabel(), minLength, maxLength);
+    }
+}
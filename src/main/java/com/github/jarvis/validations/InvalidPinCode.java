@@ -0,0 +1,31 @@
+package com.github.jarvis.validations;
+
+import android.content.res.Resources;
+
+import com.github.jarvis.dynamicformbuilder.R;
+
+/**
+ * Represents a validation error where the input is not a valid PIN code.
+ */
+public class InvalidPinCode extends ValidationError {
+
+    /**
+     * Creates a new instance with the specified field name.
+     *
+     * @param fieldName     the field name
+     * @param fieldLabel    the field label
+     */
+    public InvalidPinCode(String fieldName, String fieldLabel) {
+        super(fieldName, fieldLabel);
+    }
+
+    @Override
+    public String getMessage(Resources resources) {
+        return String.format(resources.getString(R.string.invalid_pin_code_error_msg), getFieldLabel());
+    }
+
+    @Override
+    protected Object getMessageKey() {
+        return getFieldLabel();
+    }
+}
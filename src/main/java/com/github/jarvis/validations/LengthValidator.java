@@ -0,0 +1,68 @@
+package com.github.jarvis.validations;
+
+/**
+ * Checks that the text of a value has a number of characters within a range, bounds included. Empty or null values are
+ * valid: whether a value is required is checked by {@link RequiredFieldValidator}.
+ */
+public class LengthValidator implements CostAwareValidator {
+    private final int minLength;
+    private final int maxLength;
+
+    /**
+     * Creates a validator accepting texts whose length is between the specified bounds.
+     *
+     * @param minLength the smallest valid number of characters
+     * @param maxLength the largest valid number of characters
+     */
+    public LengthValidator(int minLength, int maxLength) {
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    @Override
+    public ValidationError validate(Object value, String fieldName, String fieldLabel) {
+        if (value == null) {
+            return null;
+        }
+        int length = value instanceof CharSequence ? ((CharSequence)value).length() : value.toString().length();
+        if (length == 0 || (length >= minLength && length <= maxLength)) {
+            return null;
+        }
+        return new InvalidLength(fieldName, fieldLabel, minLength, maxLength);
+    }
+
+    @Override
+    public int getCost() {
+        return COST_STRUCTURAL;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LengthValidator other = (LengthValidator)o;
+        return minLength == other.minLength && maxLength == other.maxLength;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * minLength + maxLength;
+    }
+}
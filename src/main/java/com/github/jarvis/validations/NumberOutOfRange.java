@@ -0,0 +1,54 @@
+package com.github.jarvis.validations;
+
+import android.content.res.Resources;
+
+import com.github.jarvis.dynamicformbuilder.R;
+
+import java.util.Arrays;
+
+/**
+ * Represents a validation error where the input is not a number within the expected range.
+ */
+public class NumberOutOfRange extends ValidationError {
+    private final double min;
+    private final double max;
+
+    /**
+     * Creates a new instance with the specified field name.
+     *
+     * @param fieldName     the field name
+     * @param fieldLabel    the field label
+     * @param min           the smallest valid number
+     * @param max           the largest valid number
+     */
+    public NumberOutOfRange(String fieldName, String fieldLabel, double min, double max) {
+        super(fieldName, fieldLabel);
+        this.min = min;
+        this.max = max;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String getMessage(Resources resources) {
+        return String.format(resources.getString(R.string.number_out_of_range_error_msg), getFieldLabel(),
+                formatBound(min), formatBound(max));
+    }
+
+    private static String formatBound(double bound) {
+        // show whole bounds without a fractional part
+        return bound == Math.rint(bound) && Math.abs(bound) < Long.MAX_VALUE ? String.valueOf((long)bound)
+                : String.valueOf(bound);
+    }
+
+    @Override
+    protected Object getMessageKey() {
+        return getFieldLabel() == null ? null : Arrays.asList(getFieldLabel(), min, max);
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.jarvis.validations;
+
+/**
+ * Checks that a value is a decimal number within a range, bounds included. Values can be numbers or their text, with
+ * an optional sign and fractional part.
+ */
+public class NumericRangeValidator extends PatternValidator {
+    private static final String REGEX = "[-+]?\\d+(\\.\\d+)?";
+
+    private final double min;
+    private final double max;
+
+    /**
+     * Creates a validator accepting numbers between the specified bounds.
+     *
+     * @param min   the smallest valid number
+     * @param max   the largest valid number
+     */
+    public NumericRangeValidator(double min, double max) {
+        super(REGEX);
+        this.min = min;
+        this.max = max;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public ValidationError validate(Object value, String fieldName, String fieldLabel) {
+        if (value instanceof Number) {
+            return isInRange(((Number)value).doubleValue()) ? null : createError(fieldName, fieldLabel);
+        }
+        return super.validate(value, fieldName, fieldLabel);
+    }
+
+    @Override
+    protected boolean matches(String text) {
+        int i = text.charAt(0) == '-' || text.charAt(0) == '+' ? 1 : 0;
+        int integerStart = i;
+        while (i < text.length() && isAsciiDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == integerStart) {
+            return false;
+        }
+        if (i < text.length()) {
+            if (text.charAt(i++) != '.' || i == text.length()) {
+                return false;
+            }
+            while (i < text.length()) {
+                if (!isAsciiDigit(text.charAt(i++))) {
+                    return false;
+                }
+            }
+        }
+        return isInRange(Double.parseDouble(text));
+    }
+
+    private boolean isInRange(double number) {
+        return number >= min && number <= max;
+    }
+
+    @Override
+    protected ValidationError createError(String fieldName, String fieldLabel) {
+        return new NumberOutOfRange(fieldName, fieldLabel, min, max);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        NumericRangeValidator other = (NumericRangeValidator)o;
+        return Double.compare(min, other.min) == 0 && Double.compare(max, other.max) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long bits = Double.doubleToLongBits(min) * 31 + Double.doubleToLongBits(max);
+        return (int)(bits ^ (bits >>> 32));
+    }
+}
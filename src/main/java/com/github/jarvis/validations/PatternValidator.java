@@ -0,0 +1,104 @@
+package com.github.jarvis.validations;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Base class of the validators checking the text of a field against a regular expression. Patterns are compiled once
+ * and shared by every validator using the same expression. Subclasses for common formats override
+ * {@link #matches(String)} with a hand-written scanner equivalent to their expression, which avoids running the regular
+ * expression engine on every keystroke.
+ * <p/>
+ * Empty or null values are valid: whether a value is required is checked by {@link RequiredFieldValidator}.
+ */
+public abstract class PatternValidator implements CostAwareValidator {
+    private static final ConcurrentMap<String,Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    private final Pattern pattern;
+
+    /**
+     * Creates a validator requiring the whole value to match the specified regular expression.
+     *
+     * @param regex the regular expression
+     */
+    protected PatternValidator(String regex) {
+        this.pattern = compile(regex);
+    }
+
+    /**
+     * Returns the compiled form of the specified regular expression, compiling it only the first time it is requested.
+     *
+     * @param regex the regular expression
+     * @return      the shared compiled pattern
+     */
+    public static Pattern compile(String regex) {
+        Pattern pattern = PATTERNS.get(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            Pattern existing = PATTERNS.putIfAbsent(regex, pattern);
+            if (existing != null) {
+                pattern = existing;
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Returns the pattern values are checked against.
+     *
+     * @return  the compiled pattern
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public ValidationError validate(Object value, String fieldName, String fieldLabel) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString();
+        if (text.isEmpty() || matches(text)) {
+            return null;
+        }
+        return createError(fieldName, fieldLabel);
+    }
+
+    /**
+     * Indicates whether the whole specified text matches the pattern of this validator.
+     *
+     * @param text  the non-empty text to check
+     * @return      true if the text matches, otherwise false
+     */
+    protected boolean matches(String text) {
+        return pattern.matcher(text).matches();
+    }
+
+    /**
+     * Creates the error reported for a value that does not match.
+     *
+     * @param fieldName     the name of the field
+     * @param fieldLabel    the label of the field
+     * @return              the validation error
+     */
+    protected abstract ValidationError createError(String fieldName, String fieldLabel);
+
+    @Override
+    public int getCost() {
+        return COST_PATTERN;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+
+    static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.jarvis.validations;
+
+import android.content.res.Resources;
+
+import com.github.jarvis.dynamicformbuilder.R;
+
+/**
+ * Represents the result of an {@link AsyncInputValidator} whose check of the input is still running. The input is not
+ * considered valid until the check completes, and the field is validated again every time the form is, see
+ * {@link IncrementalFormValidator}.
+ */
+public class PendingValidation extends ValidationError {
+
+    /**
+     * Creates a new instance with the specified field name.
+     *
+     * @param fieldName     the field name
+     * @param fieldLabel    the field label
+     */
+    public PendingValidation(String fieldName, String fieldLabel) {
+        super(fieldName, fieldLabel);
+    }
+
+    @Override
+    public String getMessage(Resources resources) {
+        return String.format(resources.getString(R.string.validation_pending_msg), getFieldLabel());
+    }
+
+    @Override
+    protected Object getMessageKey() {
+        return getFieldLabel();
+    }
+}
@@ -5,13 +5,26 @@ import android.content.res.Resources;
 
 import com.github.jarvis.FormController;
 import com.github.jarvis.FormElementController;
-import com.github.jarvis.controllers.FormSectionController;
 
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Displays each validation error below its field. The display remembers the message shown by each field, so showing
+ * new errors only updates the fields whose error appeared, disappeared or changed. {@link #showErrors(List)} replaces
+ * the errors shown previously, so it does not need to be preceded by {@link #resetErrors()}. The remembered messages
+ * must be dropped with {@link #onViewsReleased()} or {@link #onViewReleased(String)} when the views of the fields are
+ * released, since new views start without an error.
+ */
 public class PerFieldValidationErrorDisplay implements ValidationErrorDisplay {
     private final Context context;
     private final FormController controller;
+    // the message currently shown by each field, by field name
+    private final Map<String,String> shownMessages = new HashMap<>();
+    // reused by showErrors, the message to show by each field
+    private final Map<String,String> newMessages = new HashMap<>();
 
     public PerFieldValidationErrorDisplay(Context context, FormController controller) {
         this.context = context;
@@ -20,20 +33,66 @@ public class PerFieldValidationErrorDisplay implements ValidationErrorDisplay {
 
     @Override
     public void resetErrors() {
-        for (FormSectionController section: controller.getSections()) {
-            for (FormElementController elementController: section.getElements()) {
-                elementController.setError(null);
-            }
-         }
+        for (String fieldName : shownMessages.keySet()) {
+            setError(fieldName, null);
+        }
+        shownMessages.clear();
+    }
+
+    /**
+     * Forgets the messages shown by the fields, without touching their views, so that the next call to
+     * {@link #showErrors(List)} shows every error again. Called by {@link FormController#releaseViews()}.
+     */
+    public void onViewsReleased() {
+        shownMessages.clear();
+    }
+
+    /**
+     * Forgets the message shown by the specified field, whose view was released, for example because its row was
+     * recycled, so that the next call to {@link #showErrors(List)} shows its error again on its new view.
+     *
+     * @param fieldName the name of the field
+     */
+    public void onViewReleased(String fieldName) {
+        shownMessages.remove(fieldName);
     }
 
     @Override
     public void showErrors(List<ValidationError> errors) {
         Resources res = context.getResources();
-        FormElementController element;
+        ValidationMessageCache messageCache = ValidationMessageCache.getInstance(context);
         for (ValidationError error : errors) {
-            element = controller.getElement(error.getFieldName());
-            element.setError(error.getMessage(res));
+            // as when every error was applied in turn, the last error of a field wins
+            newMessages.put(error.getFieldName(), messageCache.getMessage(error, res));
+        }
+
+        Iterator<Map.Entry<String,String>> shown = shownMessages.entrySet().iterator();
+        while (shown.hasNext()) {
+            String fieldName = shown.next().getKey();
+            if (!newMessages.containsKey(fieldName)) {
+                setError(fieldName, null);
+                shown.remove();
+            }
+        }
+        for (Map.Entry<String,String> message : newMessages.entrySet()) {
+            if (!message.getValue().equals(shownMessages.get(message.getKey()))) {
+                // fields without a view cannot show the error yet, so they are updated again next time
+                if (setError(message.getKey(), message.getValue())) {
+                    shownMessages.put(message.getKey(), message.getValue());
+                } else {
+                    shownMessages.remove(message.getKey());
+                }
+            }
+        }
+        newMessages.clear();
+    }
+
+    private boolean setError(String fieldName, String message) {
+        FormElementController element = controller.getElement(fieldName);
+        if (element == null) {
+            return false;
         }
+        element.setError(message);
+        return element.isViewCreated();
     }
 }
@@ -0,0 +1,51 @@
+package com.github.jarvis.validations;
+
+/**
+ * Checks that a value is a 10-digit mobile number starting with 5, 6, 7, 8 or 9.
+ */
+public class PhoneNumberValidator extends PatternValidator {
+    private static final String REGEX = "[56789]\\d{9}";
+    private static final int LENGTH = 10;
+
+    public PhoneNumberValidator() {
+        super(REGEX);
+    }
+
+    /**
+     * Indicates whether the specified text is a valid mobile number, without using a regular expression.
+     *
+     * @param text  the text to check
+     * @return      true if the text is a 10-digit number starting with 5, 6, 7, 8 or 9, otherwise false
+     */
+    public static boolean isPhoneNumber(String text) {
+        if (text == null || text.length() != LENGTH || text.charAt(0) < '5' || text.charAt(0) > '9') {
+            return false;
+        }
+        for (int i = 1; i < LENGTH; i++) {
+            if (!isAsciiDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean matches(String text) {
+        return isPhoneNumber(text);
+    }
+
+    @Override
+    protected ValidationError createError(String fieldName, String fieldLabel) {
+        return new RequiredMobile(fieldName, fieldLabel);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) || o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.jarvis.validations;
+
+/**
+ * Checks that a value is a 6-digit PIN code, which does not start with 0.
+ */
+public class PinCodeValidator extends PatternValidator {
+    private static final String REGEX = "[1-9]\\d{5}";
+    private static final int LENGTH = 6;
+
+    public PinCodeValidator() {
+        super(REGEX);
+    }
+
+    @Override
+    protected boolean matches(String text) {
+        if (text.length() != LENGTH || text.charAt(0) == '0') {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (!isAsciiDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected ValidationError createError(String fieldName, String fieldLabel) {
+        return new InvalidPinCode(fieldName, fieldLabel);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) || o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -24,8 +24,9 @@ public class PopUpValidationErrorDisplay implements ValidationErrorDisplay {
     public void showErrors(List<ValidationError> errors) {
         StringBuilder sb = new StringBuilder();
         Resources res = context.getResources();
+        ValidationMessageCache messageCache = ValidationMessageCache.getInstance(context);
         for (ValidationError error : errors) {
-            sb.append(error.getMessage(res)).append("\n");
+            sb.append(messageCache.getMessage(error, res)).append("\n");
         }
         MessageUtil.showAlertMessage(context.getString(R.string.validation_error_title), sb.toString(), context);
     }
@@ -22,4 +22,9 @@ public class RequiredField extends ValidationError {
     public String getMessage(Resources resources) {
         return String.format(resources.getString(R.string.required_field_error_msg), getFieldLabel());
     }
+
+    @Override
+    protected Object getMessageKey() {
+        return getFieldLabel();
+    }
 }
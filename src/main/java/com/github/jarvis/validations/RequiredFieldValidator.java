@@ -5,8 +5,13 @@ import android.text.TextUtils;
 import com.github.jarvis.ImageDataModel;
 
 import java.util.ArrayList;
+import java.util.List;
 
-public class RequiredFieldValidator implements InputValidator {
+/**
+ * Checks that a field has a value. This implementation accepts values of any type; {@link ValidatorRegistry} replaces it
+ * with one of the nested implementations when the type of the values of the field is known.
+ */
+public class RequiredFieldValidator implements CostAwareValidator {
     @Override
     public ValidationError validate(Object value, String fieldName, String fieldLabel) {
 
@@ -28,6 +33,21 @@ public class RequiredFieldValidator implements InputValidator {
         return null;
     }
 
+    @Override
+    public int getCost() {
+        return COST_STRUCTURAL;
+    }
+
+    /**
+     * A missing value fails any other requirement, so there is no point in reporting more errors.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
     /**
      * Makes every instances of {@link RequiredFieldValidator} equal.
      *
@@ -48,4 +68,52 @@ public class RequiredFieldValidator implements InputValidator {
     public int hashCode() {
         return 0;
     }
+
+    /**
+     * Checks that a text field is not empty.
+     */
+    public static class ForText extends RequiredFieldValidator {
+        @Override
+        public ValidationError validate(Object value, String fieldName, String fieldLabel) {
+            if (value == null || (value instanceof CharSequence && ((CharSequence)value).length() == 0)) {
+                return new RequiredField(fieldName, fieldLabel);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Checks that an image group has a value and that every image of the group was taken.
+     */
+    public static class ForImages extends RequiredFieldValidator {
+        @Override
+        public ValidationError validate(Object value, String fieldName, String fieldLabel) {
+            if (value == null) {
+                return new RequiredField(fieldName, fieldLabel);
+            }
+            if (!(value instanceof List<?>)) {
+                return super.validate(value, fieldName, fieldLabel);
+            }
+
+            List<?> images = (List<?>)value;
+            for (int i = 0; i < images.size(); i++) {
+                Object image = images.get(i);
+                if (image instanceof ImageDataModel && TextUtils.isEmpty(((ImageDataModel)image).getDrawable())) {
+                    return new RequiredField(fieldName, ((ImageDataModel)image).getText());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Checks that a field has a value, for values that cannot be empty, such as dates, or whose emptiness is not an
+     * error, such as the set of checked boxes.
+     */
+    public static class ForValue extends RequiredFieldValidator {
+        @Override
+        public ValidationError validate(Object value, String fieldName, String fieldLabel) {
+            return value == null ? new RequiredField(fieldName, fieldLabel) : null;
+        }
+    }
 }
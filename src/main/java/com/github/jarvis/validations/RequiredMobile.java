@@ -23,4 +23,9 @@ public class RequiredMobile extends ValidationError {
     public String getMessage(Resources resources) {
         return String.format(resources.getString(R.string.required_mobile_error_msg), getFieldLabel());
     }
+
+    @Override
+    protected Object getMessageKey() {
+        return getFieldLabel();
+    }
 }
@@ -1,8 +1,6 @@
 package com.github.jarvis.validations;
 
-import android.text.TextUtils;
-
-public class RequiredMobileValidator implements InputValidator {
+public class RequiredMobileValidator implements CostAwareValidator {
     @Override
     public ValidationError validate(Object value, String fieldName, String fieldLabel) {
         if (value == null || (value instanceof String && !isValidPhoneNumber((String)value))) {
@@ -11,29 +9,25 @@ public class RequiredMobileValidator implements InputValidator {
         return null;
     }
 
-    /**
-     * This method validates phone number, phone number should be
-     * of 10 digit, starts with 6, 7, 8 or 9 and can't be empty
-     * @param phone - Phone number
-     * @return - true or false
-     */
-    private boolean isValidPhoneNumber(String phone) {
-        if (phone.length() < 10) return false;
-        boolean isEmpty = TextUtils.isEmpty(phone);
-        boolean isValidPhoneNumber = isNumberStarsWithValidDigits(phone);
+    @Override
+    public int getCost() {
+        return COST_PATTERN;
+    }
 
-        if (isEmpty) return false;
-        return isValidPhoneNumber;
+    @Override
+    public boolean isBlocking() {
+        return false;
     }
 
     /**
-     * This method checks if number starts with 6, 7, 8 or 9
-     * @param mobile - Mobile Number
+     * This method validates phone number, phone number should be
+     * of 10 digit, starts with 5, 6, 7, 8 or 9 and can't be empty
+     * @param phone - Phone number
      * @return - true or false
      */
-    private boolean isNumberStarsWithValidDigits(String mobile) {
-        String regEx = "^[56789]\\d{9}$";
-        return mobile.matches(regEx);
+    private boolean isValidPhoneNumber(String phone) {
+        // scans the characters instead of matching ^[56789]\d{9}$, which compiled the expression on every call
+        return PhoneNumberValidator.isPhoneNumber(phone);
     }
 
     /**
@@ -45,4 +45,14 @@ public abstract class ValidationError {
      * @return a string describing the error
      */
     public abstract String getMessage(Resources resources);
+
+    /**
+     * Returns the values, besides the type of this error, that its message depends on. Errors of the same type with
+     * equal keys share their message in the {@link ValidationMessageCache}.
+     *
+     * @return  the key of the message of this error, or null if the message must not be cached, which is the default
+     */
+    protected Object getMessageKey() {
+        return null;
+    }
 }
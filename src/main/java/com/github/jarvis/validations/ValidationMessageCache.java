@@ -0,0 +1,123 @@
+package com.github.jarvis.validations;
+
+import android.content.ComponentCallbacks;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+
+import androidx.core.os.ConfigurationCompat;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A process-wide cache of the localized messages of validation errors, shared by the {@link ValidationErrorDisplay}
+ * implementations. Messages are resolved the first time an error of a given type is shown for a given field label,
+ * and then reused until the locale or the configuration changes. Only errors providing a key through
+ * {@link ValidationError#getMessageKey()} are cached; the message of the others is built every time.
+ */
+public class ValidationMessageCache implements ComponentCallbacks {
+    private static final int MAX_CACHED_MESSAGES = 256;
+
+    private static ValidationMessageCache instance;
+
+    // guarded by this
+    private final Map<Key,String> messages = new LinkedHashMap<Key,String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key,String> eldest) {
+            return size() > MAX_CACHED_MESSAGES;
+        }
+    };
+    // the locale the cached messages are in, which changes without a configuration change when the application
+    // updates the configuration of its resources itself
+    private Locale locale;
+
+    private static final class Key {
+        final Class<?> errorType;
+        final Object messageKey;
+
+        Key(Class<?> errorType, Object messageKey) {
+            this.errorType = errorType;
+            this.messageKey = messageKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return errorType == other.errorType && messageKey.equals(other.messageKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * errorType.hashCode() + messageKey.hashCode();
+        }
+    }
+
+    /**
+     * Returns the cache shared by all forms of the application.
+     *
+     * @param context   any context of the application
+     * @return          the shared cache
+     */
+    public static synchronized ValidationMessageCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ValidationMessageCache();
+            context.getApplicationContext().registerComponentCallbacks(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the localized message of the specified error, from the cache if possible.
+     *
+     * @param error     the validation error
+     * @param resources the resources to resolve the message with
+     * @return          the message of the error
+     */
+    public String getMessage(ValidationError error, Resources resources) {
+        Object messageKey = error.getMessageKey();
+        if (messageKey == null) {
+            return error.getMessage(resources);
+        }
+
+        Key key = new Key(error.getClass(), messageKey);
+        Locale currentLocale = ConfigurationCompat.getLocales(resources.getConfiguration()).get(0);
+        synchronized (this) {
+            if (currentLocale != null && !currentLocale.equals(locale)) {
+                messages.clear();
+                locale = currentLocale;
+            }
+            String message = messages.get(key);
+            if (message != null) {
+                return message;
+            }
+        }
+
+        String message = error.getMessage(resources);
+        synchronized (this) {
+            messages.put(key, message);
+        }
+        return message;
+    }
+
+    /**
+     * Removes every message from the cache.
+     */
+    public synchronized void clear() {
+        messages.clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        clear();
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+}
@@ -0,0 +1,168 @@
+package com.github.jarvis.validations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The validation errors of a form, indexed by field slot. The slot of a field is its position among the labeled fields
+ * of the form, in form order. A report keeps its storage when it is reset, so the same instance can be refilled on
+ * every validation without allocating, see {@link com.github.jarvis.FormController#validateInput(ValidationReport)}.
+ */
+public final class ValidationReport {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final BitSet invalidSlots = new BitSet();
+    private ValidationError[] errors = new ValidationError[INITIAL_CAPACITY];
+    private int[] errorSlots = new int[INITIAL_CAPACITY];
+    private int errorCount;
+    private int fieldCount;
+
+    /**
+     * Removes every error from this report, keeping its storage for the next validation.
+     */
+    public void reset() {
+        Arrays.fill(errors, 0, errorCount, null);
+        invalidSlots.clear();
+        errorCount = 0;
+        fieldCount = 0;
+    }
+
+    /**
+     * Adds an error for the field at the specified slot.
+     *
+     * @param slot  the slot of the field
+     * @param error the validation error
+     */
+    public void add(int slot, ValidationError error) {
+        if (errorCount == errors.length) {
+            errors = Arrays.copyOf(errors, errorCount * 2);
+            errorSlots = Arrays.copyOf(errorSlots, errorCount * 2);
+        }
+        errors[errorCount] = error;
+        errorSlots[errorCount] = slot;
+        errorCount++;
+        invalidSlots.set(slot);
+        fieldCount = Math.max(fieldCount, slot + 1);
+    }
+
+    /**
+     * Sets the number of fields that were validated.
+     *
+     * @param fieldCount    the number of fields
+     */
+    public void setFieldCount(int fieldCount) {
+        this.fieldCount = fieldCount;
+    }
+
+    /**
+     * Returns the number of fields that were validated.
+     *
+     * @return  the number of fields
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Indicates whether the report holds no error.
+     *
+     * @return  true if every field is valid, otherwise false
+     */
+    public boolean isValid() {
+        return errorCount == 0;
+    }
+
+    /**
+     * Indicates whether the field at the specified slot has no error.
+     *
+     * @param slot  the slot of the field
+     * @return      true if the field is valid, otherwise false
+     */
+    public boolean isValid(int slot) {
+        return !invalidSlots.get(slot);
+    }
+
+    /**
+     * Returns the slot of the next field that has an error, starting at the specified slot.
+     *
+     * @param fromSlot  the slot to start from, inclusive
+     * @return          the slot of the next invalid field, or -1 if there is none
+     */
+    public int nextInvalidSlot(int fromSlot) {
+        return invalidSlots.nextSetBit(fromSlot);
+    }
+
+    /**
+     * Returns the number of fields that have at least one error.
+     *
+     * @return  the number of invalid fields
+     */
+    public int getInvalidFieldCount() {
+        return invalidSlots.cardinality();
+    }
+
+    /**
+     * Returns the total number of errors in this report.
+     *
+     * @return  the number of errors
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the error at the specified index. Errors are kept in the order they were added.
+     *
+     * @param index the index of the error, between 0 and {@link #getErrorCount()} excluded
+     * @return      the error
+     */
+    public ValidationError getError(int index) {
+        checkIndex(index);
+        return errors[index];
+    }
+
+    /**
+     * Returns the slot of the field of the error at the specified index.
+     *
+     * @param index the index of the error, between 0 and {@link #getErrorCount()} excluded
+     * @return      the slot of the field
+     */
+    public int getErrorSlot(int index) {
+        checkIndex(index);
+        return errorSlots[index];
+    }
+
+    /**
+     * Returns the first error of the field at the specified slot.
+     *
+     * @param slot  the slot of the field
+     * @return      the first error of the field, or null if the field is valid
+     */
+    public ValidationError getFirstError(int slot) {
+        if (invalidSlots.get(slot)) {
+            for (int i = 0; i < errorCount; i++) {
+                if (errorSlots[i] == slot) {
+                    return errors[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the errors of this report into a new list, for example to pass them to a {@link ValidationErrorDisplay}.
+     *
+     * @return  a new list containing the errors of this report
+     */
+    public List<ValidationError> toList() {
+        return new ArrayList<>(Arrays.asList(errors).subList(0, errorCount));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= errorCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + errorCount);
+        }
+    }
+}
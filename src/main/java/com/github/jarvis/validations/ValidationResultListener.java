@@ -0,0 +1,15 @@
+package com.github.jarvis.validations;
+
+import java.util.List;
+
+/**
+ * Receives the outcome of a validation pass of a form, see {@link ValidationScheduler}.
+ */
+public interface ValidationResultListener {
+    /**
+     * Called on the UI thread with the validation errors of the form.
+     *
+     * @param errors    the validation errors of the form, empty if the input is valid
+     */
+    void onValidationResult(List<ValidationError> errors);
+}
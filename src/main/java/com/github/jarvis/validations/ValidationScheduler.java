@@ -0,0 +1,172 @@
+package com.github.jarvis.validations;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.github.jarvis.FormController;
+import com.github.jarvis.FormValidationTask;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link ValidationListener} that coalesces validation requests. Elements request a validation on every change,
+ * which on large forms means validating the whole form many times per second while the user types. The scheduler
+ * instead waits until no request arrived for a quiet period, but never longer than a maximum latency after the first
+ * pending request, and then runs a single validation pass of the form. The errors are delivered on the UI thread to a
+ * {@link ValidationResultListener}.
+ * <p/>
+ * The pass runs on the UI thread unless an executor is set with {@link #setExecutor(Executor)}, in which case the
+ * values of the fields are still read on the UI thread and only their validators run in the background, see
+ * {@link FormController#validateInputAsync(Executor, ValidationResultListener)}. Only one pass runs at a time; requests
+ * made meanwhile lead to another pass once it completes. All methods must be called from the UI thread.
+ */
+public class ValidationScheduler implements ValidationListener {
+    /**
+     * The default time without validation requests to wait before validating, in milliseconds.
+     */
+    public static final long DEFAULT_QUIET_PERIOD_MS = 150;
+    /**
+     * The default maximum time between a validation request and the start of the validation, in milliseconds.
+     */
+    public static final long DEFAULT_MAX_LATENCY_MS = 500;
+
+    private final FormController formController;
+    private final ValidationResultListener resultListener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private long quietPeriodMillis = DEFAULT_QUIET_PERIOD_MS;
+    private long maxLatencyMillis = DEFAULT_MAX_LATENCY_MS;
+    private Executor executor;
+
+    // uptime of the oldest request not handled yet, or -1 if there is none
+    private long firstRequestTime = -1;
+    private boolean passRequested;
+    // the pass running in the background, if any
+    private FormValidationTask runningPass;
+
+    private final Runnable validateRunnable = new Runnable() {
+        @Override
+        public void run() {
+            firstRequestTime = -1;
+            if (runningPass != null) {
+                passRequested = true;
+            } else {
+                startPass();
+            }
+        }
+    };
+
+    /**
+     * Creates a new scheduler validating the specified form.
+     *
+     * @param formController    the form to validate
+     * @param resultListener    the listener receiving the validation errors of each pass
+     */
+    public ValidationScheduler(FormController formController, ValidationResultListener resultListener) {
+        this.formController = formController;
+        this.resultListener = resultListener;
+    }
+
+    /**
+     * Sets the time without validation requests to wait before validating. With a quiet period of zero, the requests
+     * made while handling the same UI event still result in a single validation.
+     *
+     * @param quietPeriodMillis the quiet period, in milliseconds
+     */
+    public void setQuietPeriod(long quietPeriodMillis) {
+        this.quietPeriodMillis = quietPeriodMillis;
+    }
+
+    public long getQuietPeriod() {
+        return quietPeriodMillis;
+    }
+
+    /**
+     * Sets the maximum time between a validation request and the start of the validation, however often validations
+     * are requested.
+     *
+     * @param maxLatencyMillis  the maximum latency, in milliseconds
+     */
+    public void setMaxLatency(long maxLatencyMillis) {
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    public long getMaxLatency() {
+        return maxLatencyMillis;
+    }
+
+    /**
+     * Sets the executor running the validators of the validation passes, typically backed by a pool of threads.
+     *
+     * @param executor  the executor to use, or null to validate on the UI thread
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Schedules a validation pass of the form, merged with the other requests of the same burst.
+     */
+    @Override
+    public void onValidateInput() {
+        long now = SystemClock.uptimeMillis();
+        if (firstRequestTime < 0) {
+            firstRequestTime = now;
+        }
+
+        mainHandler.removeCallbacks(validateRunnable);
+        mainHandler.postAtTime(validateRunnable, Math.min(now + quietPeriodMillis, firstRequestTime + maxLatencyMillis));
+    }
+
+    /**
+     * Validates the form right away on the calling thread, for example before submitting it. Pending requests are
+     * dropped, as is the result of a pass still running in the background.
+     *
+     * @return  the validation errors of the form, which are also delivered to the result listener
+     */
+    public List<ValidationError> validateNow() {
+        cancel();
+        List<ValidationError> errors = formController.validateInput();
+        resultListener.onValidationResult(errors);
+        return errors;
+    }
+
+    /**
+     * Drops the pending validation requests and the result of a pass still running in the background, for example
+     * when the form is destroyed.
+     */
+    public void cancel() {
+        mainHandler.removeCallbacks(validateRunnable);
+        firstRequestTime = -1;
+        passRequested = false;
+        if (runningPass != null) {
+            runningPass.cancel();
+            runningPass = null;
+        }
+    }
+
+    private void startPass() {
+        if (executor == null) {
+            resultListener.onValidationResult(formController.validateInput());
+            return;
+        }
+
+        // the fields are read here, on the UI thread, so the pass never races with the changes the user makes
+        runningPass = formController.validateInputAsync(executor, new ValidationResultListener() {
+            @Override
+            public void onValidationResult(List<ValidationError> errors) {
+                onPassCompleted(errors);
+            }
+        });
+    }
+
+    private void onPassCompleted(List<ValidationError> errors) {
+        runningPass = null;
+        resultListener.onValidationResult(errors);
+        if (passRequested) {
+            passRequested = false;
+            startPass();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.jarvis.validations;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * An immutable list of validators ordered by their cost, see {@link CostAwareValidator}. Validators of the same cost
+ * keep the order in which they were given. Validation stops after the first error reported by a blocking validator,
+ * so for example an empty required field is not checked against a pattern too. Validations are measured by
+ * {@link ValidatorMetrics} when it is enabled.
+ */
+public final class ValidatorChain {
+    private static final Comparator<InputValidator> COST_ORDER = new Comparator<InputValidator>() {
+        @Override
+        public int compare(InputValidator lhs, InputValidator rhs) {
+            int lhsCost = getCost(lhs);
+            int rhsCost = getCost(rhs);
+            return lhsCost < rhsCost ? -1 : (lhsCost == rhsCost ? 0 : 1);
+        }
+    };
+
+    private final InputValidator[] validators;
+    private final boolean[] blocking;
+
+    /**
+     * Creates a chain from the specified validators.
+     *
+     * @param validators    the validators of the chain, in any order
+     */
+    public ValidatorChain(Collection<? extends InputValidator> validators) {
+        this(validators, null);
+    }
+
+    /**
+     * Creates a chain from the specified validators, replaced by their implementation specialized for the specified
+     * value type, see {@link ValidatorRegistry}.
+     *
+     * @param validators    the validators of the chain, in any order
+     * @param valueType     the type of the values of the field, or null if it is unknown
+     */
+    public ValidatorChain(Collection<? extends InputValidator> validators, Class<?> valueType) {
+        this.validators = new InputValidator[validators.size()];
+        int index = 0;
+        for (InputValidator validator : validators) {
+            this.validators[index++] = ValidatorRegistry.resolve(validator, valueType);
+        }
+        // Arrays.sort on objects is a stable merge sort
+        Arrays.sort(this.validators, COST_ORDER);
+        blocking = new boolean[this.validators.length];
+        for (int i = 0; i < this.validators.length; i++) {
+            blocking[i] = this.validators[i] instanceof CostAwareValidator
+                    && ((CostAwareValidator)this.validators[i]).isBlocking();
+        }
+    }
+
+    /**
+     * Returns the number of validators in this chain.
+     *
+     * @return  the number of validators
+     */
+    public int size() {
+        return validators.length;
+    }
+
+    /**
+     * Returns the validator at the specified position, in the order they run.
+     *
+     * @param index the position of the validator
+     * @return      the validator
+     */
+    public InputValidator get(int index) {
+        return validators[index];
+    }
+
+    /**
+     * Runs the validators of this chain and adds the errors they report to the specified collection.
+     *
+     * @param value         the value to check
+     * @param fieldName     the name of the field
+     * @param fieldLabel    the label of the field
+     * @param errors        the collection to add the validation errors to
+     * @return              the number of validation errors added
+     */
+    public int validate(Object value, String fieldName, String fieldLabel, Collection<? super ValidationError> errors) {
+        ValidatorMetrics metrics = ValidatorMetrics.getInstance();
+        boolean measured = metrics.isEnabled();
+        int count = 0;
+        for (int i = 0; i < validators.length; i++) {
+            long start = measured ? System.nanoTime() : 0;
+            ValidationError error = validators[i].validate(value, fieldName, fieldLabel);
+            if (measured) {
+                metrics.record(validators[i], System.nanoTime() - start, isFailure(error));
+            }
+            if (error != null) {
+                errors.add(error);
+                count++;
+                if (blocking[i]) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Indicates whether the specified value passes every validator of this chain. Stops at the first error.
+     *
+     * @param value         the value to check
+     * @param fieldName     the name of the field
+     * @param fieldLabel    the label of the field
+     * @return              true if no validator reports an error, otherwise false
+     */
+    public boolean isValid(Object value, String fieldName, String fieldLabel) {
+        ValidatorMetrics metrics = ValidatorMetrics.getInstance();
+        boolean measured = metrics.isEnabled();
+        for (InputValidator validator : validators) {
+            long start = measured ? System.nanoTime() : 0;
+            ValidationError error = validator.validate(value, fieldName, fieldLabel);
+            if (measured) {
+                metrics.record(validator, System.nanoTime() - start, isFailure(error));
+            }
+            if (error != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFailure(ValidationError error) {
+        // a check still running is not a verdict on the value
+        return error != null && !(error instanceof PendingValidation);
+    }
+
+    private static int getCost(InputValidator validator) {
+        return validator instanceof CostAwareValidator
+                ? ((CostAwareValidator)validator).getCost()
+                : CostAwareValidator.COST_DEFAULT;
+    }
+}
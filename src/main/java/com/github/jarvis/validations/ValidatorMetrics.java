@@ -0,0 +1,325 @@
+package com.github.jarvis.validations;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures the validators run by the fields of all forms: how many times each validator class runs, how often it
+ * reports an error, and how long it takes, as a histogram of power-of-two latency buckets. Recording is disabled by
+ * default; when enabled, each validation costs two clock reads and a few atomic increments on counters striped by
+ * thread, without allocating. Measurements are read through a {@link Snapshot}, which can be published to
+ * {@link SnapshotListener}s or written to a file.
+ */
+public final class ValidatorMetrics {
+    /**
+     * The number of latency buckets. Bucket {@code i} counts the validations that took less than {@code 2^i}
+     * nanoseconds and at least half of that; the last bucket also counts every longer validation.
+     */
+    public static final int BUCKET_COUNT = 32;
+
+    private static final ValidatorMetrics INSTANCE = new ValidatorMetrics();
+
+    private static final int STRIPE_COUNT = 8;
+    private static final int CALLS = 0;
+    private static final int FAILURES = 1;
+    private static final int TOTAL_NANOS = 2;
+    private static final int HISTOGRAM = 3;
+    // a multiple of 8 longs, so that stripes do not share cache lines
+    private static final int STRIPE_SIZE = (HISTOGRAM + BUCKET_COUNT + 7) & ~7;
+
+    private final ConcurrentMap<Class<?>,Counters> countersByValidator = new ConcurrentHashMap<>();
+    private final List<SnapshotListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean enabled;
+
+    /**
+     * Receives the snapshots published with {@link #publishSnapshot()}.
+     */
+    public interface SnapshotListener {
+        /**
+         * Called with the latest measurements, on the thread publishing them.
+         *
+         * @param snapshot  the measurements
+         */
+        void onSnapshot(Snapshot snapshot);
+    }
+
+    private static final class Counters {
+        final AtomicLongArray values = new AtomicLongArray(STRIPE_COUNT * STRIPE_SIZE);
+
+        void record(long nanos, boolean failed) {
+            int base = ((int)Thread.currentThread().getId() & (STRIPE_COUNT - 1)) * STRIPE_SIZE;
+            values.incrementAndGet(base + CALLS);
+            if (failed) {
+                values.incrementAndGet(base + FAILURES);
+            }
+            values.addAndGet(base + TOTAL_NANOS, nanos);
+            values.incrementAndGet(base + HISTOGRAM + bucketOf(nanos));
+        }
+
+        long sum(int offset) {
+            long sum = 0;
+            for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+                sum += values.get(stripe * STRIPE_SIZE + offset);
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * The measurements of a validator class at the time a {@link Snapshot} was taken.
+     */
+    public static final class ValidatorStats {
+        private final String validatorName;
+        private final long calls;
+        private final long failures;
+        private final long totalNanos;
+        private final long[] histogram;
+
+        ValidatorStats(String validatorName, long calls, long failures, long totalNanos, long[] histogram) {
+            this.validatorName = validatorName;
+            this.calls = calls;
+            this.failures = failures;
+            this.totalNanos = totalNanos;
+            this.histogram = histogram;
+        }
+
+        public String getValidatorName() {
+            return validatorName;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * Returns the fraction of the validations that reported an error.
+         *
+         * @return  the failure rate, between 0 and 1
+         */
+        public double getFailureRate() {
+            return calls == 0 ? 0 : (double)failures / calls;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMeanNanos() {
+            return calls == 0 ? 0 : totalNanos / calls;
+        }
+
+        /**
+         * Returns the number of validations in the specified latency bucket, see {@link #BUCKET_COUNT}.
+         *
+         * @param bucket    the bucket
+         * @return          the number of validations
+         */
+        public long getBucketCount(int bucket) {
+            return histogram[bucket];
+        }
+
+        /**
+         * Returns an upper bound of the specified percentile of the latency, with the precision of the buckets.
+         *
+         * @param percentile    the percentile, between 0 and 100
+         * @return              the upper bound of the bucket holding the percentile, in nanoseconds
+         */
+        public long getPercentileNanos(double percentile) {
+            long rank = (long)Math.ceil(calls * percentile / 100);
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                seen += histogram[bucket];
+                if (seen >= rank && seen > 0) {
+                    return 1L << bucket;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * The measurements of all the validator classes at a given time.
+     */
+    public static final class Snapshot {
+        private final long timeMillis;
+        private final List<ValidatorStats> stats;
+
+        Snapshot(long timeMillis, List<ValidatorStats> stats) {
+            this.timeMillis = timeMillis;
+            this.stats = Collections.unmodifiableList(stats);
+        }
+
+        /**
+         * Returns the time the snapshot was taken.
+         *
+         * @return  the time, in milliseconds since the epoch
+         */
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        /**
+         * Returns the measurements of each validator class, the slowest in total first.
+         *
+         * @return  the measurements
+         */
+        public List<ValidatorStats> getStats() {
+            return stats;
+        }
+
+        /**
+         * Writes this snapshot as tab-separated values, one line per validator class.
+         *
+         * @param writer        the writer to write to
+         * @throws IOException  if writing fails
+         */
+        public void writeTo(Writer writer) throws IOException {
+            writer.write("validator\tcalls\tfailures\tfailure_rate\tmean_us\tp50_us\tp90_us\tp99_us\n");
+            for (ValidatorStats s : stats) {
+                writer.write(String.format(Locale.US, "%s\t%d\t%d\t%.4f\t%.1f\t%.1f\t%.1f\t%.1f\n",
+                        s.getValidatorName(), s.getCalls(), s.getFailures(), s.getFailureRate(),
+                        s.getMeanNanos() / 1000.0, s.getPercentileNanos(50) / 1000.0,
+                        s.getPercentileNanos(90) / 1000.0, s.getPercentileNanos(99) / 1000.0));
+            }
+        }
+    }
+
+    private ValidatorMetrics() {
+    }
+
+    /**
+     * Returns the measurements shared by all forms of the application.
+     *
+     * @return  the shared measurements
+     */
+    public static ValidatorMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enables or disables recording. Measurements made so far are kept.
+     *
+     * @param enabled   true to record validations, otherwise false
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a validation.
+     *
+     * @param validator the validator that ran
+     * @param nanos     the time it took, in nanoseconds
+     * @param failed    whether it reported an error
+     */
+    public void record(InputValidator validator, long nanos, boolean failed) {
+        Counters counters = countersByValidator.get(validator.getClass());
+        if (counters == null) {
+            counters = new Counters();
+            Counters existing = countersByValidator.putIfAbsent(validator.getClass(), counters);
+            if (existing != null) {
+                counters = existing;
+            }
+        }
+        counters.record(nanos, failed);
+    }
+
+    /**
+     * Forgets every measurement.
+     */
+    public void reset() {
+        countersByValidator.clear();
+    }
+
+    /**
+     * Returns the current measurements. Validations recorded while the snapshot is taken may be partially included.
+     *
+     * @return  the measurements
+     */
+    public Snapshot takeSnapshot() {
+        List<ValidatorStats> stats = new ArrayList<>();
+        for (Map.Entry<Class<?>,Counters> entry : countersByValidator.entrySet()) {
+            Counters counters = entry.getValue();
+            long[] histogram = new long[BUCKET_COUNT];
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                histogram[bucket] = counters.sum(HISTOGRAM + bucket);
+            }
+            stats.add(new ValidatorStats(entry.getKey().getName(), counters.sum(CALLS), counters.sum(FAILURES),
+                    counters.sum(TOTAL_NANOS), histogram));
+        }
+        Collections.sort(stats, new Comparator<ValidatorStats>() {
+            @Override
+            public int compare(ValidatorStats lhs, ValidatorStats rhs) {
+                return lhs.totalNanos > rhs.totalNanos ? -1 : (lhs.totalNanos == rhs.totalNanos ? 0 : 1);
+            }
+        });
+        return new Snapshot(System.currentTimeMillis(), stats);
+    }
+
+    public void addSnapshotListener(SnapshotListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeSnapshotListener(SnapshotListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Takes a snapshot and passes it to the registered listeners.
+     *
+     * @return  the snapshot
+     */
+    public Snapshot publishSnapshot() {
+        Snapshot snapshot = takeSnapshot();
+        for (SnapshotListener listener : listeners) {
+            listener.onSnapshot(snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Takes a snapshot and writes it to the specified file, replacing its content. Should not be called from the UI
+     * thread.
+     *
+     * @param file          the file to write, such as a file of {@link android.content.Context#getFilesDir()}
+     * @return              the snapshot
+     * @throws IOException  if the file cannot be written
+     */
+    public Snapshot exportTo(File file) throws IOException {
+        Snapshot snapshot = takeSnapshot();
+        Writer writer = new BufferedWriter(new FileWriter(file));
+        try {
+            snapshot.writeTo(writer);
+        } finally {
+            writer.close();
+        }
+        return snapshot;
+    }
+
+    static int bucketOf(long nanos) {
+        // the number of significant bits, so that bucket i holds [2^(i-1), 2^i)
+        int bucket = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+}
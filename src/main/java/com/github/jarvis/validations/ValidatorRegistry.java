@@ -0,0 +1,90 @@
+package com.github.jarvis.validations;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Picks the implementation of a validator that is specialized for the type of the values of a field. Generic
+ * validators such as {@link RequiredFieldValidator} check the type of the value on every call; their specialized
+ * versions skip the checks that cannot apply to the type, such as scanning the elements of a list for a text field.
+ * Validators are resolved once, when a field builds its {@link ValidatorChain}, see
+ * {@link com.github.jarvis.controllers.LabeledFieldController#getValidatorChain()}.
+ */
+public final class ValidatorRegistry {
+    private static final ConcurrentMap<Class<?>,Map<Class<?>,InputValidator>> SPECIALIZATIONS = new ConcurrentHashMap<>();
+
+    static {
+        register(RequiredFieldValidator.class, String.class, new RequiredFieldValidator.ForText());
+        register(RequiredFieldValidator.class, List.class, new RequiredFieldValidator.ForImages());
+        register(RequiredFieldValidator.class, Set.class, new RequiredFieldValidator.ForValue());
+        register(RequiredFieldValidator.class, Date.class, new RequiredFieldValidator.ForValue());
+    }
+
+    private ValidatorRegistry() {
+    }
+
+    /**
+     * Registers the validator to use instead of validators of the specified class for fields holding values of the
+     * specified type. The registered validator must report the same errors as the validators it replaces for such
+     * values.
+     *
+     * @param validatorClass    the exact class of the validators to replace
+     * @param valueType         the type of the values of the field
+     * @param specialized       the validator to use instead
+     */
+    public static void register(Class<? extends InputValidator> validatorClass, Class<?> valueType,
+                                InputValidator specialized) {
+        Map<Class<?>,InputValidator> byType = SPECIALIZATIONS.get(validatorClass);
+        if (byType == null) {
+            byType = new ConcurrentHashMap<>();
+            Map<Class<?>,InputValidator> existing = SPECIALIZATIONS.putIfAbsent(validatorClass, byType);
+            if (existing != null) {
+                byType = existing;
+            }
+        }
+        byType.put(valueType, specialized);
+    }
+
+    /**
+     * Returns the validator to use for a field holding values of the specified type. The specialization registered
+     * for the closest supertype of the value type is used, classes being looked up before interfaces.
+     *
+     * @param validator the validator of the field
+     * @param valueType the type of the values of the field, or null if it is unknown
+     * @return          the specialized validator, or {@code validator} itself if there is none
+     */
+    public static InputValidator resolve(InputValidator validator, Class<?> valueType) {
+        Map<Class<?>,InputValidator> byType = SPECIALIZATIONS.get(validator.getClass());
+        if (byType == null || valueType == null) {
+            return validator;
+        }
+
+        Deque<Class<?>> types = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        types.add(valueType);
+        while (!types.isEmpty()) {
+            Class<?> type = types.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            InputValidator specialized = byType.get(type);
+            if (specialized != null) {
+                return specialized;
+            }
+            if (type.getSuperclass() != null) {
+                types.add(type.getSuperclass());
+            }
+            for (Class<?> anInterface : type.getInterfaces()) {
+                types.add(anInterface);
+            }
+        }
+        return validator;
+    }
+}
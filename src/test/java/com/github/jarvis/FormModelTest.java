@@ -0,0 +1,114 @@
+package com.github.jarvis;
+
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FormModelTest {
+
+    @Test
+    public void mapModelSupportsSlots() {
+        checkSlots(new MapFormModel());
+    }
+
+    @Test
+    public void indexedModelSupportsSlots() {
+        checkSlots(new IndexedFormModel());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mapModelRejectsUnknownSlots() {
+        FormModel model = new MapFormModel();
+        model.resolveSlot("name");
+        model.getSlotName(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void indexedModelRejectsUnknownSlots() {
+        FormModel model = new IndexedFormModel();
+        model.resolveSlot("name");
+        model.getSlotName(1);
+    }
+
+    @Test
+    public void slotsAndNamesShareValues() {
+        FormModel model = new MapFormModel();
+        int slot = model.resolveSlot("name");
+        model.setValue("name", "a");
+        assertEquals("a", model.getValue(slot));
+        model.setValue(slot, "b");
+        assertEquals("b", model.getValue("name"));
+    }
+
+    @Test
+    public void settingSlotNotifiesListenersOfItsName() {
+        FormModel model = new MapFormModel();
+        RecordingListener listener = new RecordingListener();
+        model.addPropertyChangeListener("name", listener);
+
+        model.setValue(model.resolveSlot("name"), "a");
+        assertEquals(1, listener.events.size());
+        assertEquals("name", listener.events.get(0).getPropertyName());
+    }
+
+    @Test
+    public void batchNotifiesListenersAddedBeforeCommit() {
+        FormModel model = new MapFormModel();
+        model.setValue("name", "a");
+
+        model.beginBatch();
+        model.setValue("name", "b");
+        model.setValue("name", "c");
+        RecordingListener listener = new RecordingListener();
+        model.addPropertyChangeListener("name", listener);
+        assertEquals(0, listener.events.size());
+        model.commit();
+
+        assertEquals(1, listener.events.size());
+        assertEquals("a", listener.events.get(0).getOldValue());
+        assertEquals("c", listener.events.get(0).getNewValue());
+    }
+
+    @Test
+    public void batchDropsChangesRevertedBeforeCommit() {
+        FormModel model = new MapFormModel();
+        RecordingListener listener = new RecordingListener();
+        model.addPropertyChangeListener(listener);
+        model.setValue("name", "a");
+
+        model.beginBatch();
+        model.setValue("name", "b");
+        model.setValue("name", "a");
+        model.commit();
+
+        assertEquals(1, listener.events.size());
+    }
+
+    private static void checkSlots(FormModel model) {
+        int first = model.resolveSlot("first");
+        int second = model.resolveSlot("second");
+        assertEquals(first, model.resolveSlot("first"));
+        assertNull(model.getValue(first));
+
+        model.setValue(first, "a");
+        model.setValue(second, "b");
+        assertEquals("a", model.getValue(first));
+        assertEquals("b", model.getValue(second));
+        assertEquals("a", model.getValue("first"));
+    }
+
+    static final class RecordingListener implements PropertyChangeListener {
+        final List<PropertyChangeEvent> events = new ArrayList<>();
+
+        @Override
+        public void propertyChange(PropertyChangeEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.jarvis.controllers;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SelectionIndexTest {
+    private static final String ALPHABET = "abAB c";
+
+    @Test
+    public void findByPrefixMatchesStartsWithOnRandomInput() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<String> items = new ArrayList<>();
+            int size = random.nextInt(50);
+            for (int i = 0; i < size; i++) {
+                items.add(randomText(random, 6));
+            }
+            SelectionIndex index = new SelectionIndex(items);
+
+            for (int query = 0; query < 20; query++) {
+                String prefix = index.normalize(randomText(random, 3));
+                assertArrayEquals(items + " / " + prefix, filterByPrefix(items, prefix), index.findByPrefix(prefix));
+            }
+        }
+    }
+
+    @Test
+    public void findByPrefixKeepsOriginalOrderOfDuplicates() {
+        SelectionIndex index = new SelectionIndex(Arrays.asList("beta", "Alpha", "alpha", "ALPHABET", "gamma"));
+
+        assertArrayEquals(new int[] {1, 2, 3}, index.findByPrefix("alpha"));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, index.findByPrefix(""));
+        assertArrayEquals(new int[0], index.findByPrefix("delta"));
+    }
+
+    @Test
+    public void nullItemsAreEmpty() {
+        SelectionIndex index = new SelectionIndex(null);
+
+        assertEquals(0, index.getItems().size());
+        assertArrayEquals(new int[0], index.findByPrefix("a"));
+    }
+
+    /**
+     * The filter the index replaced.
+     */
+    private static int[] filterByPrefix(List<String> items, String prefix) {
+        int[] matches = new int[items.size()];
+        int count = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).toLowerCase(Locale.getDefault()).startsWith(prefix)) {
+                matches[count++] = i;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private static String randomText(Random random, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.jarvis.controllers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TrigramIndexTest {
+    @Test
+    public void ranksPrefixThenWordStartThenInfixThenFuzzyMatches() {
+        TrigramIndex index = new TrigramIndex(new String[] {
+                "nordland",     // 0: contains the query inside a word
+                "unrelated",    // 1: no match
+                "land rover",   // 2: starts with the query
+                "new landing",  // 3: a word starts with the query
+                "lanf",         // 4: a typo, sharing one of the two trigrams
+        });
+
+        assertArrayEquals(new int[] {2, 3, 0, 4}, index.find("land"));
+    }
+
+    @Test
+    public void ranksMoreSimilarItemsFirstWithinGroup() {
+        TrigramIndex index = new TrigramIndex(new String[] {"paris texas", "paris", "parisian"});
+
+        assertArrayEquals(new int[] {1, 2, 0}, index.find("paris"));
+    }
+
+    @Test
+    public void keepsOriginalOrderOfEquallyRankedItems() {
+        TrigramIndex index = new TrigramIndex(new String[] {"oslo", "other", "oslo", "oslo"});
+
+        assertArrayEquals(new int[] {0, 2, 3}, index.find("oslo"));
+    }
+
+    @Test
+    public void findsMisspelledItems() {
+        TrigramIndex index = new TrigramIndex(new String[] {"amsterdam", "rotterdam", "berlin"});
+
+        int[] matches = index.find("amsterdma");
+        assertArrayEquals(new int[] {0}, Arrays.copyOf(matches, 1));
+    }
+
+    @Test
+    public void shortQueriesMatchItemsContainingThem() {
+        TrigramIndex index = new TrigramIndex(new String[] {"oak", "kobe", "ko", "hong kong", "bangkok", "oslo"});
+
+        // shorter than a trigram: searched directly, by group then by the share of the item the query covers
+        assertArrayEquals(new int[] {2, 1, 3, 4}, index.find("ko"));
+        assertArrayEquals(new int[] {0, 5, 2, 1, 4, 3}, index.find("o"));
+    }
+
+    @Test
+    public void returnsOnlyBestMatchesOfLargeLists() {
+        int worse = TrigramIndex.MAX_RESULTS;
+        int better = TrigramIndex.MAX_RESULTS + 10;
+        String[] keys = new String[worse + better];
+        // the worse matches come first, so the best ones must replace them
+        for (int i = 0; i < worse; i++) {
+            keys[i] = "new land " + i;
+        }
+        for (int i = 0; i < better; i++) {
+            keys[worse + i] = "land " + i;
+        }
+        TrigramIndex index = new TrigramIndex(keys);
+
+        for (String query : new String[] {"la", "land"}) {
+            int[] matches = index.find(query);
+            assertEquals(TrigramIndex.MAX_RESULTS, matches.length);
+            for (int position : matches) {
+                assertTrue(query + " matched " + keys[position], position >= worse);
+            }
+        }
+        // the shortest keys are the most similar to the query
+        assertEquals(worse, index.find("land")[0]);
+    }
+
+    @Test
+    public void queriesDoNotAffectEachOther() {
+        TrigramIndex index = new TrigramIndex(new String[] {"alpha", "alphabet", "beta"});
+
+        int[] first = index.find("alph");
+        index.find("bet");
+        assertArrayEquals(first, index.find("alph"));
+    }
+}
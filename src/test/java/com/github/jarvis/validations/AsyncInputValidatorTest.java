@@ -0,0 +1,145 @@
+package com.github.jarvis.validations;
+
+import android.content.res.Resources;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncInputValidatorTest {
+
+    @Test
+    public void validResultIsCached() {
+        FakeValidator validator = new FakeValidator();
+        assertTrue(validator.validate("a", "field", "Field") instanceof PendingValidation);
+        assertNull(validator.validate("a", "field", "Field"));
+        assertNull(validator.validate("a", "other", "Other"));
+        assertEquals(1, validator.checks);
+    }
+
+    @Test
+    public void invalidResultIsCached() {
+        FakeValidator validator = new FakeValidator();
+        validator.valid = false;
+        validator.validate("a", "field", "Field");
+        assertTrue(validator.validate("a", "field", "Field") instanceof InvalidValue);
+        assertEquals(1, validator.checks);
+    }
+
+    @Test
+    public void failedCheckPassesUntilValueChangesAndIsNotCached() {
+        FakeValidator validator = new FakeValidator();
+        validator.failure = new IOException("offline");
+        validator.validate("a", "field", "Field");
+        assertEquals(1, validator.failures);
+        assertFalse(validator.isPending("field"));
+
+        assertNull(validator.validate("a", "field", "Field"));
+        assertEquals(1, validator.checks);
+
+        validator.failure = null;
+        validator.validate("b", "field", "Field");
+        assertTrue(validator.validate("a", "field", "Field") instanceof PendingValidation);
+        assertEquals(3, validator.checks);
+    }
+
+    @Test
+    public void timedOutCheckIsReportedAsFailure() {
+        FakeValidator validator = new FakeValidator();
+        validator.failure = new SocketTimeoutException();
+        validator.validate("a", "field", "Field");
+        assertEquals(1, validator.failures);
+        assertFalse(validator.isPending("field"));
+        assertNull(validator.validate("a", "field", "Field"));
+
+        // other fields check the value again
+        validator.failure = null;
+        assertTrue(validator.validate("a", "other", "Other") instanceof PendingValidation);
+        assertEquals(2, validator.checks);
+    }
+
+    static final class InvalidValue extends ValidationError {
+        InvalidValue(String fieldName, String fieldLabel) {
+            super(fieldName, fieldLabel);
+        }
+
+        @Override
+        public String getMessage(Resources resources) {
+            return getFieldLabel();
+        }
+    }
+
+    static final class FakeValidator extends AsyncInputValidator {
+        int checks;
+        int failures;
+        boolean valid = true;
+        Exception failure;
+
+        FakeValidator() {
+            super(new DirectExecutorService());
+        }
+
+        @Override
+        protected boolean isValid(Object value) throws Exception {
+            checks++;
+            if (failure != null) {
+                throw failure;
+            }
+            return valid;
+        }
+
+        @Override
+        protected ValidationError createError(String fieldName, String fieldLabel) {
+            return new InvalidValue(fieldName, fieldLabel);
+        }
+
+        @Override
+        protected void onCheckFailed(Object value, Exception exception) {
+            failures++;
+        }
+    }
+
+    /**
+     * Runs the checks right away on the calling thread.
+     */
+    static final class DirectExecutorService extends AbstractExecutorService {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.github.jarvis.validations;
+
+import android.content.res.Resources;
+import android.view.View;
+
+import com.github.jarvis.FormModel;
+import com.github.jarvis.controllers.LabeledFieldController;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalFormValidatorTest {
+    private IncrementalFormValidator validator;
+
+    @Before
+    public void setUp() {
+        validator = new IncrementalFormValidator();
+    }
+
+    @Test
+    public void validatesOnlyDirtyFields() {
+        FakeField a = new FakeField("a");
+        FakeField b = new FakeField("b");
+        validator.track(a);
+        validator.track(b);
+
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(1, a.validations);
+        assertEquals(1, b.validations);
+
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(1, a.validations);
+
+        a.setErrorCount(2);
+        validator.markDirty("a");
+        assertEquals(2, validator.getErrorCount());
+        assertEquals(2, a.validations);
+        assertEquals(1, b.validations);
+    }
+
+    @Test
+    public void errorCountFollowsChanges() {
+        FakeField a = new FakeField("a");
+        a.setErrorCount(1);
+        validator.track(a);
+        assertEquals(1, validator.getErrorCount());
+        assertFalse(validator.isValid());
+
+        a.setErrorCount(0);
+        assertEquals(1, validator.getErrorCount());
+        validator.markDirty(a);
+        assertEquals(0, validator.getErrorCount());
+        assertTrue(validator.isValid());
+    }
+
+    @Test
+    public void markingDirtyTwiceQueuesOnce() {
+        FakeField a = new FakeField("a");
+        a.setErrorCount(1);
+        validator.track(a);
+        assertEquals(1, validator.getErrorCount());
+
+        validator.markDirty("a");
+        validator.markDirty("a");
+        validator.markDirty(a);
+        assertEquals(1, validator.getErrorCount());
+        assertEquals(2, a.validations);
+    }
+
+    @Test
+    public void isValidStopsAtFirstError() {
+        FakeField a = new FakeField("a");
+        FakeField b = new FakeField("b");
+        a.setErrorCount(1);
+        validator.track(a);
+        validator.track(b);
+
+        assertFalse(validator.isValid());
+        assertEquals(0, b.validations);
+        assertNull(validator.getCachedErrors(b));
+
+        assertEquals(1, validator.getErrorCount());
+        assertEquals(1, b.validations);
+        assertEquals(Collections.<ValidationError>emptyList(), validator.getCachedErrors(b));
+    }
+
+    @Test
+    public void getErrorsValidatesDirtyField() {
+        FakeField a = new FakeField("a");
+        a.setErrorCount(1);
+        validator.track(a);
+        assertNull(validator.getCachedErrors(a));
+
+        List<ValidationError> errors = validator.getErrors(a);
+        assertEquals(1, errors.size());
+        assertSame(errors, validator.getCachedErrors(a));
+        assertEquals(1, validator.getErrorCount());
+        assertEquals(1, a.validations);
+    }
+
+    @Test
+    public void pendingResultIsValidatedAgainUntilComplete() {
+        FakeField a = new FakeField("a");
+        a.setPending(true);
+        validator.track(a);
+
+        assertFalse(validator.isValid());
+        assertEquals(1, validator.getErrorCount());
+        assertNull(validator.getCachedErrors(a));
+        int validations = a.validations;
+
+        assertEquals(1, validator.getErrorCount());
+        assertTrue(a.validations > validations);
+
+        // the check completed without the field being marked dirty
+        a.setPending(false);
+        assertTrue(validator.isValid());
+        assertEquals(0, validator.getErrorCount());
+        validations = a.validations;
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(validations, a.validations);
+    }
+
+    @Test
+    public void pendingResultDoesNotFailFastOnceComplete() {
+        FakeField a = new FakeField("a");
+        FakeField b = new FakeField("b");
+        a.setPending(true);
+        b.setErrorCount(1);
+        validator.track(a);
+        validator.track(b);
+        assertEquals(2, validator.getErrorCount());
+
+        a.setPending(false);
+        b.setErrorCount(0);
+        validator.markDirty(b);
+        assertTrue(validator.isValid());
+    }
+
+    @Test
+    public void untrackingPendingFieldRemovesItsErrors() {
+        FakeField a = new FakeField("a");
+        a.setPending(true);
+        validator.track(a);
+        assertEquals(1, validator.getErrorCount());
+
+        validator.untrack(a);
+        assertEquals(0, validator.getErrorCount());
+        assertTrue(validator.isValid());
+    }
+
+    @Test
+    public void fieldsWithSameNameAreMarkedDirtyTogether() {
+        FakeField first = new FakeField("x");
+        FakeField second = new FakeField("x");
+        FakeField other = new FakeField("y");
+        validator.track(first);
+        validator.track(second);
+        validator.track(other);
+        assertEquals(0, validator.getErrorCount());
+
+        validator.markDirty("x");
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(2, first.validations);
+        assertEquals(2, second.validations);
+        assertEquals(1, other.validations);
+    }
+
+    @Test
+    public void untrackingUnlinksFieldFromSameNameChain() {
+        FakeField first = new FakeField("x");
+        FakeField second = new FakeField("x");
+        FakeField third = new FakeField("x");
+        validator.track(first);
+        validator.track(second);
+        validator.track(third);
+        assertEquals(0, validator.getErrorCount());
+
+        validator.untrack(second);
+        validator.markDirty("x");
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(2, first.validations);
+        assertEquals(1, second.validations);
+        assertEquals(2, third.validations);
+
+        validator.untrack(first);
+        validator.untrack(third);
+        validator.markDirty("x");
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(2, first.validations);
+        assertEquals(2, third.validations);
+
+        // the name can be tracked again once every field using it is gone
+        FakeField fourth = new FakeField("x");
+        validator.track(fourth);
+        validator.markDirty("x");
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(1, fourth.validations);
+    }
+
+    @Test
+    public void untrackingRemovesErrorsOfCleanAndDirtyFields() {
+        FakeField a = new FakeField("a");
+        FakeField b = new FakeField("b");
+        a.setErrorCount(2);
+        b.setErrorCount(1);
+        validator.track(a);
+        validator.track(b);
+        assertEquals(3, validator.getErrorCount());
+
+        validator.untrack(a);
+        assertEquals(1, validator.getErrorCount());
+
+        validator.markDirty(b);
+        validator.untrack(b);
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(1, b.validations);
+    }
+
+    @Test
+    public void untrackedFieldIsValidatedDirectly() {
+        FakeField a = new FakeField("a");
+        a.setErrorCount(1);
+        assertEquals(1, validator.getErrors(a).size());
+        assertEquals(1, validator.getErrors(a).size());
+        assertEquals(2, a.validations);
+        assertEquals(0, validator.getErrorCount());
+    }
+
+    @Test
+    public void crossFieldValidatorRunsOnlyWhenDependencyChanges() {
+        FakeRule rule = new FakeRule("a", "b");
+        validator.addCrossFieldValidator(rule);
+        assertTrue(validator.getCrossFieldErrors().isEmpty());
+        assertEquals(1, rule.runs);
+
+        validator.markDirty("c");
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(1, rule.runs);
+
+        rule.failing = true;
+        validator.markDirty("b");
+        assertEquals(1, validator.getErrorCount());
+        assertEquals(2, rule.runs);
+        assertEquals(1, validator.getCrossFieldErrors().size());
+
+        validator.removeCrossFieldValidator(rule);
+        assertEquals(0, validator.getErrorCount());
+        assertTrue(validator.getCrossFieldErrors().isEmpty());
+        validator.markDirty("a");
+        assertEquals(2, rule.runs);
+    }
+
+    @Test
+    public void settingModelMarksEverythingDirty() {
+        FakeField a = new FakeField("a");
+        FakeRule rule = new FakeRule("a");
+        validator.track(a);
+        validator.addCrossFieldValidator(rule);
+        assertEquals(0, validator.getErrorCount());
+
+        validator.setModel(null);
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(2, a.validations);
+        assertEquals(2, rule.runs);
+    }
+
+    @Test
+    public void putErrorsStoresResultOfCurrentGeneration() {
+        FakeField a = new FakeField("a");
+        validator.track(a);
+        int generation = validator.getGeneration(a);
+
+        validator.putErrors(a, generation, Collections.<ValidationError>singletonList(new TestError("a")));
+        assertEquals(1, validator.getCachedErrors(a).size());
+        assertEquals(1, validator.getErrorCount());
+        assertEquals(0, a.validations);
+
+        validator.markDirty("a");
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(1, a.validations);
+    }
+
+    @Test
+    public void putErrorsIgnoresResultOfOlderGeneration() {
+        FakeField a = new FakeField("a");
+        validator.track(a);
+        int generation = validator.getGeneration(a);
+
+        // the value changes while the old one is validated elsewhere, even though the field is already dirty
+        validator.markDirty("a");
+        validator.putErrors(a, generation, Collections.<ValidationError>singletonList(new TestError("a")));
+        assertNull(validator.getCachedErrors(a));
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(1, a.validations);
+    }
+
+    @Test
+    public void putErrorsIgnoresPendingAndUntrackedResults() {
+        FakeField a = new FakeField("a");
+        validator.track(a);
+        int generation = validator.getGeneration(a);
+
+        validator.putErrors(a, generation,
+                Collections.<ValidationError>singletonList(new PendingValidation("a", "a")));
+        assertNull(validator.getCachedErrors(a));
+
+        validator.untrack(a);
+        assertEquals(-1, validator.getGeneration(a));
+        validator.putErrors(a, generation, Collections.<ValidationError>singletonList(new TestError("a")));
+        assertEquals(0, validator.getErrorCount());
+    }
+
+    @Test
+    public void putErrorsCompletesPendingResult() {
+        FakeField a = new FakeField("a");
+        a.setPending(true);
+        validator.track(a);
+        assertEquals(1, validator.getErrorCount());
+
+        validator.putErrors(a, validator.getGeneration(a), Collections.<ValidationError>emptyList());
+        a.setPending(false);
+        assertTrue(validator.isValid());
+        assertEquals(0, validator.getErrorCount());
+        assertEquals(1, a.validations);
+    }
+
+    static final class TestError extends ValidationError {
+        TestError(String fieldName) {
+            super(fieldName, fieldName);
+        }
+
+        @Override
+        public String getMessage(Resources resources) {
+            return getFieldName();
+        }
+    }
+
+    static final class FakeField extends LabeledFieldController {
+        int validations;
+        private final List<ValidationError> errors = new ArrayList<>();
+
+        FakeField(String name) {
+            super(null, name, name, new HashSet<InputValidator>());
+        }
+
+        void setErrorCount(int count) {
+            errors.clear();
+            for (int i = 0; i < count; i++) {
+                errors.add(new TestError(getName()));
+            }
+        }
+
+        void setPending(boolean pending) {
+            errors.clear();
+            if (pending) {
+                errors.add(new PendingValidation(getName(), getLabel()));
+            }
+        }
+
+        @Override
+        public int validateInput(Collection<? super ValidationError> out) {
+            validations++;
+            out.addAll(errors);
+            return errors.size();
+        }
+
+        @Override
+        protected View createFieldView() {
+            return null;
+        }
+
+        @Override
+        public void refresh() {
+        }
+    }
+
+    static final class FakeRule implements CrossFieldValidator {
+        final String[] dependencies;
+        int runs;
+        boolean failing;
+
+        FakeRule(String... dependencies) {
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public String[] getDependencies() {
+            return Arrays.copyOf(dependencies, dependencies.length);
+        }
+
+        @Override
+        public ValidationError validate(FormModel model) {
+            runs++;
+            return failing ? new TestError(dependencies[0]) : null;
+        }
+    }
+}